@@ -37,7 +37,8 @@ public @interface Audited {
     String entityIdExpression() default "";
 
     /**
-     * Whether to log asynchronously
+     * Whether to log asynchronously.
+     * Audit rows are always written behind in batches, so both settings return without waiting for the insert.
      */
     boolean async() default false;
 }
@@ -1,18 +1,26 @@
 package com.template.app.audit.api.controller;
 
+import com.template.app.audit.api.dto.AuditLogSlice;
+import com.template.app.audit.api.dto.AuditRetentionResult;
 import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.service.AuditExportService;
 import com.template.app.audit.service.AuditService;
 import com.template.app.common.dto.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,6 +32,13 @@ import java.util.List;
 public class AuditController {
 
     private final AuditService auditService;
+    private final AuditExportService auditExportService;
+
+    /**
+     * Exports outlast the default async request timeout (30s on Tomcat), so they carry their own.
+     */
+    @Value("${audit.export.timeout-ms:1800000}")
+    private long exportTimeoutMillis;
 
     @GetMapping("/entity/{entityType}/{entityId}")
     @Operation(summary = "Get audit history for an entity")
@@ -59,6 +74,60 @@ public class AuditController {
         return ResponseEntity.ok(ApiResponse.success(logs));
     }
 
+    @GetMapping("/actor/{actorId}/cursor")
+    @Operation(summary = "Get audit logs by actor (cursor pagination)")
+    public ResponseEntity<ApiResponse<AuditLogSlice>> getLogsByActorCursor(
+            @PathVariable Long actorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        AuditLogSlice logs = auditService.getLogsByActor(actorId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(logs));
+    }
+
+    @GetMapping("/search/cursor")
+    @Operation(summary = "Search audit logs (cursor pagination)")
+    public ResponseEntity<ApiResponse<AuditLogSlice>> searchLogsCursor(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) AuditLog.AuditAction action,
+            @RequestParam(required = false) Long actorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        AuditLogSlice logs = auditService.searchLogs(entityType, action, actorId, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(logs));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export audit logs as NDJSON or CSV (streamed)")
+    public WebAsyncTask<Void> exportLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) AuditLog.AuditAction action,
+            @RequestParam(required = false) Long actorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NDJSON") AuditExportService.Format format,
+            HttpServletResponse response
+    ) {
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusMonths(1);
+
+        // Headers are set on the export thread so that a rejected export gets a plain JSON error
+        return new WebAsyncTask<>(exportTimeoutMillis, auditExportService.getExecutor(), () -> {
+            boolean csv = format == AuditExportService.Format.CSV;
+            response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"audit-logs." + (csv ? "csv" : "ndjson") + "\"");
+
+            OutputStream out = response.getOutputStream();
+            auditExportService.export(entityType, action, actorId, start, end, format, out);
+            out.flush();
+            return null;
+        });
+    }
+
     @GetMapping("/stats/{action}")
     @Operation(summary = "Get action count since a date")
     public ResponseEntity<ApiResponse<Long>> getActionCount(
@@ -72,10 +141,10 @@ public class AuditController {
 
     @DeleteMapping("/cleanup")
     @Operation(summary = "Clean up old audit logs")
-    public ResponseEntity<ApiResponse<Void>> cleanupOldLogs(
+    public ResponseEntity<ApiResponse<AuditRetentionResult>> cleanupOldLogs(
             @RequestParam(defaultValue = "90") int retentionDays
     ) {
-        auditService.cleanupOldLogs(retentionDays);
-        return ResponseEntity.ok(ApiResponse.success(null));
+        AuditRetentionResult result = auditService.cleanupOldLogs(retentionDays);
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 }
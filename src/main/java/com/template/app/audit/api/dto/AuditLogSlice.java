@@ -0,0 +1,11 @@
+package com.template.app.audit.api.dto;
+
+import com.template.app.audit.domain.entity.AuditLog;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated audit query. Pass {@code nextCursor} back to get the following page.
+ */
+public record AuditLogSlice(List<AuditLog> content, String nextCursor, boolean hasNext) {
+}
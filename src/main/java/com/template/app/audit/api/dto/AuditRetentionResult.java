@@ -0,0 +1,8 @@
+package com.template.app.audit.api.dto;
+
+/**
+ * What one retention run removed. Rows in dropped partitions are not counted; {@code deletedRows} only
+ * covers the month that holds the cutoff, which is trimmed row by row.
+ */
+public record AuditRetentionResult(int droppedPartitions, long deletedRows, int deletedRollups) {
+}
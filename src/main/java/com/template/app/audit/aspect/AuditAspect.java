@@ -8,15 +8,31 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Aspect
 @Component
@@ -25,15 +41,34 @@ import java.lang.reflect.Parameter;
 public class AuditAspect {
 
     private final AuditService auditService;
-    private final ExpressionParser expressionParser = new SpelExpressionParser();
+
+    /**
+     * MIXED mode compiles an expression to bytecode once it has been interpreted successfully,
+     * and falls back to interpretation if a compiled expression fails.
+     */
+    private final SpelExpressionParser expressionParser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, AuditAspect.class.getClassLoader()));
+
+    /**
+     * Shared, read-only settings for evaluating entity ID expressions: property and getter access
+     * on the arguments, no type references, constructors or bean lookups. Never mutated after creation.
+     */
+    private static final EvaluationContext BASE_CONTEXT = SimpleEvaluationContext
+            .forReadOnlyDataBinding()
+            .withInstanceMethods()
+            .build();
+
+    /**
+     * Per-method metadata, built on the first call of each audited method.
+     */
+    private final Map<Method, AuditMetadata> metadataCache = new ConcurrentHashMap<>();
 
     @Around("@annotation(audited)")
     public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+        AuditMetadata metadata = getMetadata(joinPoint, audited);
         Long actorId = getCurrentUserId();
-        Long entityId = extractEntityId(joinPoint, audited);
-        String description = audited.description().isEmpty()
-                ? audited.action().name() + " " + audited.entityType()
-                : audited.description();
+        Long entityId = extractEntityId(metadata, joinPoint.getArgs());
+        String description = metadata.description();
 
         Object result;
         try {
@@ -60,6 +95,40 @@ public class AuditAspect {
         return result;
     }
 
+    private AuditMetadata getMetadata(ProceedingJoinPoint joinPoint, Audited audited) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        AuditMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, m -> buildMetadata(m, audited));
+        }
+        return metadata;
+    }
+
+    private AuditMetadata buildMetadata(Method method, Audited audited) {
+        String description = audited.description().isEmpty()
+                ? audited.action().name() + " " + audited.entityType()
+                : audited.description();
+
+        String expression = audited.entityIdExpression();
+        if (expression.isEmpty()) {
+            return new AuditMetadata(description, expression, null, Map.of());
+        }
+
+        Parameter[] parameters = method.getParameters();
+        Map<String, Integer> parameterIndexes = new HashMap<>(parameters.length * 2);
+        for (int i = 0; i < parameters.length; i++) {
+            parameterIndexes.put(parameters[i].getName(), i);
+        }
+
+        try {
+            return new AuditMetadata(description, expression,
+                    expressionParser.parseExpression(expression), Map.copyOf(parameterIndexes));
+        } catch (Exception e) {
+            log.warn("Invalid entity ID expression '{}' on {}: {}", expression, method, e.getMessage());
+            return new AuditMetadata(description, expression, null, Map.of());
+        }
+    }
+
     private Long getCurrentUserId() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -72,24 +141,14 @@ public class AuditAspect {
         return null;
     }
 
-    private Long extractEntityId(ProceedingJoinPoint joinPoint, Audited audited) {
-        String expression = audited.entityIdExpression();
-        if (expression.isEmpty()) {
+    private Long extractEntityId(AuditMetadata metadata, Object[] args) {
+        if (metadata.entityIdExpression() == null) {
             return null;
         }
 
         try {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            Method method = signature.getMethod();
-            Parameter[] parameters = method.getParameters();
-            Object[] args = joinPoint.getArgs();
-
-            StandardEvaluationContext context = new StandardEvaluationContext();
-            for (int i = 0; i < parameters.length; i++) {
-                context.setVariable(parameters[i].getName(), args[i]);
-            }
-
-            Object result = expressionParser.parseExpression(expression).getValue(context);
+            Object result = metadata.entityIdExpression()
+                    .getValue(new ArgumentsEvaluationContext(metadata.parameterIndexes(), args));
             if (result instanceof Long) {
                 return (Long) result;
             } else if (result instanceof Number) {
@@ -98,9 +157,87 @@ public class AuditAspect {
                 return Long.parseLong((String) result);
             }
         } catch (Exception e) {
-            log.debug("Could not extract entity ID from expression: {}", expression, e);
+            log.debug("Could not extract entity ID from expression: {}", metadata.expressionString(), e);
         }
 
         return null;
     }
+
+    /**
+     * Everything about an audited method that does not change between calls.
+     *
+     * @param entityIdExpression parsed expression, or null when none is configured
+     * @param parameterIndexes   parameter name -> argument index
+     */
+    private record AuditMetadata(
+            String description,
+            String expressionString,
+            Expression entityIdExpression,
+            Map<String, Integer> parameterIndexes
+    ) {
+    }
+
+    /**
+     * Resolves {@code #name} variables straight from the argument array and delegates everything
+     * else to {@link #BASE_CONTEXT}, so a call only allocates this wrapper.
+     */
+    private record ArgumentsEvaluationContext(Map<String, Integer> parameterIndexes, Object[] args)
+            implements EvaluationContext {
+
+        @Override
+        public Object lookupVariable(String name) {
+            Integer index = parameterIndexes.get(name);
+            return index != null && index < args.length ? args[index] : null;
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            throw new UnsupportedOperationException("Entity ID expressions cannot assign variables");
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return BASE_CONTEXT.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return BASE_CONTEXT.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return BASE_CONTEXT.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return BASE_CONTEXT.getBeanResolver();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return BASE_CONTEXT.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return BASE_CONTEXT.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return BASE_CONTEXT.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return BASE_CONTEXT.getOperatorOverloader();
+        }
+    }
 }
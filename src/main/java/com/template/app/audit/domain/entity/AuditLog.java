@@ -2,16 +2,15 @@ package com.template.app.audit.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_logs_entity", columnList = "entity_type, entity_id"),
-        @Index(name = "idx_audit_logs_actor", columnList = "actor_id"),
-        @Index(name = "idx_audit_logs_action", columnList = "action"),
-        @Index(name = "idx_audit_logs_created_at", columnList = "created_at")
+        @Index(name = "idx_audit_logs_entity_created", columnList = "entity_type, entity_id, created_at, id"),
+        @Index(name = "idx_audit_logs_actor_created", columnList = "actor_id, created_at, id"),
+        @Index(name = "idx_audit_logs_action_created", columnList = "action, created_at, id"),
+        @Index(name = "idx_audit_logs_created_at_id", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -20,8 +19,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AuditLog {
 
+    /**
+     * Pooled sequence (increment 50) so ids are assigned without a round trip per row and inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_id_seq")
+    @SequenceGenerator(name = "audit_logs_id_seq", sequenceName = "audit_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -64,10 +67,19 @@ public class AuditLog {
     @Column(name = "request_method", length = 10)
     private String requestMethod;
 
-    @CreationTimestamp
+    /**
+     * Time of the audited event, set when the row is built rather than when it is flushed.
+     */
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
     public enum AuditAction {
         CREATE,
         READ,
@@ -4,15 +4,19 @@ import com.template.app.audit.domain.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>,
+        JpaSpecificationExecutor<AuditLog>, AuditLogRepositoryCustom {
 
     Page<AuditLog> findByEntityTypeAndEntityId(String entityType, Long entityId, Pageable pageable);
 
@@ -20,8 +24,15 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
     Page<AuditLog> findByAction(AuditLog.AuditAction action, Pageable pageable);
 
-    @Query("SELECT a FROM AuditLog a WHERE a.entityType = :entityType AND a.entityId = :entityId ORDER BY a.createdAt DESC")
-    List<AuditLog> findEntityHistory(@Param("entityType") String entityType, @Param("entityId") Long entityId);
+    @Query("SELECT a FROM AuditLog a WHERE a.entityType = :entityType AND a.entityId = :entityId " +
+            "AND a.createdAt >= :since ORDER BY a.createdAt DESC")
+    List<AuditLog> findEntityHistory(
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("since") LocalDateTime since
+    );
+
+    Page<AuditLog> findByActorIdAndCreatedAtGreaterThanEqual(Long actorId, LocalDateTime since, Pageable pageable);
 
     @Query("SELECT a FROM AuditLog a WHERE a.actorId = :actorId AND a.createdAt BETWEEN :startDate AND :endDate ORDER BY a.createdAt DESC")
     Page<AuditLog> findByActorIdAndDateRange(
@@ -38,23 +49,39 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             Pageable pageable
     );
 
-    @Query("SELECT a FROM AuditLog a WHERE " +
-            "(:entityType IS NULL OR a.entityType = :entityType) AND " +
-            "(:action IS NULL OR a.action = :action) AND " +
-            "(:actorId IS NULL OR a.actorId = :actorId) AND " +
-            "a.createdAt BETWEEN :startDate AND :endDate " +
-            "ORDER BY a.createdAt DESC")
-    Page<AuditLog> searchAuditLogs(
-            @Param("entityType") String entityType,
-            @Param("action") AuditLog.AuditAction action,
+    /**
+     * Keyset page of an actor's logs strictly after the cursor in (createdAt DESC, id DESC) order.
+     * Pass {@code PageRequest.of(0, size)}; returning a List skips the count query.
+     */
+    @Query("SELECT a FROM AuditLog a WHERE a.actorId = :actorId AND a.createdAt >= :since " +
+            "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLog> findByActorIdBefore(
             @Param("actorId") Long actorId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
+            @Param("since") LocalDateTime since,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
             Pageable pageable
     );
 
     @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.action = :action AND a.createdAt >= :since")
     Long countByActionSince(@Param("action") AuditLog.AuditAction action, @Param("since") LocalDateTime since);
 
-    void deleteByCreatedAtBefore(LocalDateTime before);
+    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.action = :action AND a.createdAt >= :from AND a.createdAt < :to")
+    long countByActionBetween(
+            @Param("action") AuditLog.AuditAction action,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Delete up to {@code limit} rows older than the cutoff in a transaction of its own, so retention
+     * of the month containing the cutoff never holds row locks for the whole month at once.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM audit_logs WHERE (id, created_at) IN (" +
+            "SELECT id, created_at FROM audit_logs WHERE created_at < :before LIMIT :limit)",
+            nativeQuery = true)
+    int deleteBatchCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
@@ -0,0 +1,14 @@
+package com.template.app.audit.repository;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * First {@code limit} rows matching the specification in (createdAt DESC, id DESC) order, without a count query.
+     */
+    List<AuditLog> findNewest(Specification<AuditLog> specification, int limit);
+}
@@ -0,0 +1,73 @@
+package com.template.app.audit.repository;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicates for audit log search. Callers combine only the filters actually supplied,
+ * so each query has a fixed, index-friendly shape instead of {@code (:x IS NULL OR ...)} clauses.
+ */
+public final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    public static Specification<AuditLog> hasEntityType(String entityType) {
+        return (root, query, cb) -> cb.equal(root.get("entityType"), entityType);
+    }
+
+    public static Specification<AuditLog> hasAction(AuditLog.AuditAction action) {
+        return (root, query, cb) -> cb.equal(root.get("action"), action);
+    }
+
+    public static Specification<AuditLog> hasActor(Long actorId) {
+        return (root, query, cb) -> cb.equal(root.get("actorId"), actorId);
+    }
+
+    public static Specification<AuditLog> createdFrom(LocalDateTime startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), startDate);
+    }
+
+    public static Specification<AuditLog> createdUntil(LocalDateTime endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), endDate);
+    }
+
+    /**
+     * Rows strictly after the given position in (createdAt DESC, id DESC) order.
+     */
+    public static Specification<AuditLog> before(LocalDateTime createdAt, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.get("id"), id)
+                )
+        );
+    }
+
+    /**
+     * Combine the supplied search filters; null arguments add no predicate.
+     */
+    public static Specification<AuditLog> search(String entityType,
+                                                 AuditLog.AuditAction action,
+                                                 Long actorId,
+                                                 LocalDateTime startDate,
+                                                 LocalDateTime endDate) {
+        Specification<AuditLog> spec = createdFrom(startDate);
+        if (endDate != null) {
+            spec = spec.and(createdUntil(endDate));
+        }
+        if (entityType != null) {
+            spec = spec.and(hasEntityType(entityType));
+        }
+        if (action != null) {
+            spec = spec.and(hasAction(action));
+        }
+        if (actorId != null) {
+            spec = spec.and(hasActor(actorId));
+        }
+        return spec;
+    }
+}
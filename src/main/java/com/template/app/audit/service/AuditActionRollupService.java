@@ -0,0 +1,152 @@
+package com.template.app.audit.service;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.repository.AuditLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hourly audit action counters.
+ * <p>
+ * Counts are accumulated in memory as audit rows are written and periodically added to
+ * {@code audit_action_hourly} with an upsert. Range totals then read one row per hour instead of
+ * counting audit rows; only the partial first hour of a range is counted from {@code audit_logs}.
+ * Counts still pending on other nodes show up after their next flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditActionRollupService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO audit_action_hourly (action, hour_start, count) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (action, hour_start) DO UPDATE SET count = audit_action_hourly.count + EXCLUDED.count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * Counts not yet written to the rollup table.
+     */
+    private final Map<HourKey, AtomicLong> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Count audit rows that have just been persisted.
+     */
+    public void record(List<AuditLog> rows) {
+        for (AuditLog row : rows) {
+            HourKey key = new HourKey(row.getAction(), row.getCreatedAt().truncatedTo(ChronoUnit.HOURS));
+            add(key, 1);
+        }
+    }
+
+    /**
+     * Increments happen inside {@code compute} so they serialize with the drain in {@link #flush()};
+     * a counter can never be incremented after it has been drained and removed.
+     */
+    private void add(HourKey key, long delta) {
+        pending.compute(key, (k, counter) -> {
+            AtomicLong target = counter != null ? counter : new AtomicLong();
+            target.addAndGet(delta);
+            return target;
+        });
+    }
+
+    /**
+     * Add pending counts to the rollup table.
+     */
+    @Scheduled(fixedDelayString = "${audit.rollup.flush-interval:60000}")
+    public void flush() {
+        List<HourKey> keys = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        for (HourKey key : pending.keySet()) {
+            long[] drained = new long[1];
+            pending.computeIfPresent(key, (k, counter) -> {
+                drained[0] = counter.getAndSet(0);
+                // Past hours are done; a late row for one simply starts a new counter
+                return k.hourStart().isBefore(currentHour) ? null : counter;
+            });
+
+            long count = drained[0];
+            if (count == 0) {
+                continue;
+            }
+            keys.add(key);
+            batch.add(new Object[]{key.action().name(), Timestamp.valueOf(key.hourStart()), count});
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (Exception e) {
+            log.warn("Failed to flush audit action rollup, will retry: {}", e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                add(keys.get(i), (Long) batch.get(i)[2]);
+            }
+        }
+    }
+
+    /**
+     * Remove rollup rows for hours that lie entirely before the audit retention cutoff.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM audit_action_hourly WHERE hour_start < ?",
+                Timestamp.valueOf(cutoff.truncatedTo(ChronoUnit.HOURS)));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Number of audit rows for an action since the given time.
+     */
+    public long countSince(AuditLog.AuditAction action, LocalDateTime since) {
+        LocalDateTime firstFullHour = since.truncatedTo(ChronoUnit.HOURS);
+        long total = 0;
+
+        // Partial first hour: bounded count over at most one hour of one partition
+        if (firstFullHour.isBefore(since)) {
+            firstFullHour = firstFullHour.plusHours(1);
+            total += auditLogRepository.countByActionBetween(action, since, firstFullHour);
+        }
+
+        Long rolledUp = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(count), 0) FROM audit_action_hourly WHERE action = ? AND hour_start >= ?",
+                Long.class, action.name(), Timestamp.valueOf(firstFullHour));
+        total += rolledUp != null ? rolledUp : 0;
+
+        for (Map.Entry<HourKey, AtomicLong> entry : pending.entrySet()) {
+            HourKey key = entry.getKey();
+            if (key.action() == action && !key.hourStart().isBefore(firstFullHour)) {
+                total += entry.getValue().get();
+            }
+        }
+        return total;
+    }
+
+    private record HourKey(AuditLog.AuditAction action, LocalDateTime hourStart) {
+    }
+}
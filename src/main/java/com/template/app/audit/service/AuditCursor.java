@@ -0,0 +1,37 @@
+package com.template.app.audit.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Seek position in audit logs ordered by {@code (created_at DESC, id DESC)}.
+ * Encoded as an opaque base64url token for clients.
+ */
+public record AuditCursor(LocalDateTime createdAt, long id) {
+
+    /**
+     * Position before the newest possible row, used for the first page.
+     */
+    public static AuditCursor first(LocalDateTime upperBound) {
+        return new AuditCursor(upperBound, Long.MAX_VALUE);
+    }
+
+    public static AuditCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new AuditCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
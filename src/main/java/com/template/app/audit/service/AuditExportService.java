@@ -0,0 +1,261 @@
+package com.template.app.audit.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.app.audit.domain.entity.AuditLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams audit logs straight from a forward-only JDBC cursor to the response.
+ * <p>
+ * Rows are fetched {@code audit.export.fetch-size} at a time (PostgreSQL only uses a server-side
+ * cursor inside a transaction) and written as they arrive, so memory use does not depend on the
+ * size of the export and no entities are materialized.
+ * <p>
+ * Exports hold a thread for as long as the client keeps reading, so they run on their own pool of
+ * {@code audit.export.max-concurrent} threads rather than the shared {@code applicationTaskExecutor}
+ * used by {@code @Async} sends and MVC async handling. Once that pool and its
+ * {@code audit.export.queue-capacity} waiting slots are taken, further exports are rejected.
+ */
+@Slf4j
+@Service
+public class AuditExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final String[] COLUMNS = {
+            "id", "action", "entity_type", "entity_id", "actor_id", "actor_type", "actor_ip",
+            "actor_user_agent", "old_value", "new_value", "changed_fields", "description",
+            "request_path", "request_method", "created_at"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor exportExecutor;
+    private final AsyncTaskExecutor taskExecutor;
+
+    public AuditExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${audit.export.fetch-size:1000}") int fetchSize,
+                              @Value("${audit.export.max-concurrent:2}") int maxConcurrent,
+                              @Value("${audit.export.queue-capacity:0}") int queueCapacity) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        AtomicInteger sequence = new AtomicInteger();
+        this.exportExecutor = new ThreadPoolExecutor(
+                maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "audit-export-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.exportExecutor.allowCoreThreadTimeOut(true);
+        this.taskExecutor = new TaskExecutorAdapter(exportExecutor);
+    }
+
+    /**
+     * Executor for export requests. Submitting to a saturated pool throws
+     * {@link java.util.concurrent.RejectedExecutionException}, which is answered with 503.
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * Exports still streaming are interrupted; their clients see a truncated download.
+     */
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdownNow();
+    }
+
+    /**
+     * Write every matching row, oldest first, to the output stream.
+     * Only the filters that are supplied become predicates.
+     */
+    public void export(String entityType,
+                       AuditLog.AuditAction action,
+                       Long actorId,
+                       LocalDateTime startDate,
+                       LocalDateTime endDate,
+                       Format format,
+                       OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", COLUMNS))
+                .append(" FROM audit_logs WHERE created_at >= ? AND created_at <= ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(startDate));
+        args.add(Timestamp.valueOf(endDate));
+
+        if (entityType != null) {
+            sql.append(" AND entity_type = ?");
+            args.add(entityType);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action.name());
+        }
+        if (actorId != null) {
+            sql.append(" AND actor_id = ?");
+            args.add(actorId);
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rs -> {
+                        try {
+                            writer.write(rs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            // Client went away; the transaction has been rolled back and the cursor closed
+            throw e.getCause();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void close() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write(String.join(",", COLUMNS));
+            this.writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value instanceof Number number) {
+                    writer.write(number.toString());
+                } else if (value != null) {
+                    writeEscaped(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Text columns carry client-controlled values (user agent, paths, entity snapshots). A cell that a
+         * spreadsheet would read as a formula is prefixed with {@code '} and quoted, so it opens as text.
+         */
+        private void writeEscaped(String value) throws IOException {
+            boolean formula = !value.isEmpty() && FORMULA_TRIGGERS.indexOf(value.charAt(0)) >= 0;
+            boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            if (formula) {
+                writer.write('\'');
+            }
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
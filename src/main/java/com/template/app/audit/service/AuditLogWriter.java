@@ -0,0 +1,269 @@
+package com.template.app.audit.service;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for audit rows.
+ * <p>
+ * Callers only enqueue into a bounded ring buffer. A single writer thread flushes the buffer in
+ * JDBC batches of {@code audit.write-behind.batch-size} rows, either when a batch is full or when
+ * {@code flush-interval-ms} has passed since the first queued row. Audit traffic therefore takes one
+ * pooled connection per batch instead of one per audited call.
+ * <p>
+ * When the buffer is full, callers wait up to {@code offer-timeout-ms} and then write their row
+ * themselves, so audit rows are never dropped and producers are slowed rather than unbounded.
+ * On shutdown the buffer is drained before the application context closes.
+ * <p>
+ * A failed batch is retried {@code retry-attempts} times with exponential backoff and then written
+ * row by row; only rows that still fail are counted in {@code audit.writer.failed} and logged.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditActionRollupService auditActionRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter failedRows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${audit.write-behind.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${audit.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${audit.write-behind.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${audit.write-behind.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    @Value("${audit.write-behind.retry-attempts:3}")
+    private int retryAttempts;
+
+    @Value("${audit.write-behind.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${audit.write-behind.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<AuditLog> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository,
+                          AuditActionRollupService auditActionRollupService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditActionRollupService = auditActionRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.failedRows = Counter.builder("audit.writer.failed")
+                .description("Audit rows that could not be written")
+                .register(meterRegistry);
+
+        Gauge.builder("audit.writer.queue.size", this, writer -> writer.buffer != null ? writer.buffer.size() : 0)
+                .description("Audit rows waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.running = true;
+        this.writerThread = new Thread(this::run, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+
+        log.info("Audit write-behind started: buffer {}, batch {}, flush interval {} ms",
+                bufferSize, batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Queue an audit row for writing. Blocks briefly when the buffer is full, then writes inline.
+     */
+    public void write(AuditLog auditLog) {
+        if (running) {
+            try {
+                if (buffer.offer(auditLog, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.warn("Audit buffer full ({} rows); writing inline", bufferSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        flush(List.of(auditLog));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The writer thread notices within one flush interval; not interrupted so an in-flight batch completes
+        running = false;
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything the writer thread did not get to before the timeout
+        List<AuditLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        flushInBatches(remaining);
+
+        log.info("Audit write-behind stopped");
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+
+        List<AuditLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        flushInBatches(remaining);
+    }
+
+    /**
+     * Wait for the first row, then keep collecting until the batch is full or the flush interval has elapsed.
+     */
+    private void collectBatch(List<AuditLog> batch) throws InterruptedException {
+        AuditLog first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) {
+                return;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+
+            AuditLog next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flushInBatches(List<AuditLog> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            flush(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    /**
+     * Write a batch, retrying the whole batch with backoff on failure, then falling back to one
+     * transaction per row so a single bad row or a lasting error only loses the rows that really fail.
+     */
+    private void flush(List<AuditLog> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
+            try {
+                insert(rows);
+                auditActionRollupService.record(rows);
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to write {} audit logs (attempt {}/{}): {}",
+                        rows.size(), attempt, retryAttempts, e.getMessage());
+                resetIds(rows);
+            }
+
+            if (attempt < retryAttempts && !sleep(backoffMs)) {
+                break;
+            }
+            backoffMs *= 2;
+        }
+
+        flushRowByRow(rows);
+    }
+
+    private void flushRowByRow(List<AuditLog> rows) {
+        List<AuditLog> written = new ArrayList<>(rows.size());
+        for (AuditLog row : rows) {
+            try {
+                insert(List.of(row));
+                written.add(row);
+            } catch (Exception e) {
+                resetIds(List.of(row));
+                failedRows.increment();
+                log.error("Failed to write audit log {} {}#{} by actor {} at {}",
+                        row.getAction(), row.getEntityType(), row.getEntityId(), row.getActorId(),
+                        row.getCreatedAt(), e);
+            }
+        }
+        auditActionRollupService.record(written);
+    }
+
+    private void insert(List<AuditLog> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            auditLogRepository.saveAll(rows);
+        });
+    }
+
+    /**
+     * Ids handed out by the rolled-back attempt are cleared so the retry inserts instead of merging.
+     */
+    private static void resetIds(List<AuditLog> rows) {
+        rows.forEach(row -> row.setId(null));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.template.app.audit.service;
+
+import com.template.app.scheduler.annotation.ScheduledWithLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the monthly partitions of {@code audit_logs} (see V7 migration).
+ * <p>
+ * Partitions are created {@code audit.partitions.months-ahead} months in advance, and retention
+ * drops whole partitions instead of deleting rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditPartitionService {
+
+    private static final String PARTITION_PREFIX = "audit_logs_p";
+    private static final String DEFAULT_PARTITION = "audit_logs_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            log.warn("Could not create audit log partitions on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Make sure partitions exist for the current month and the configured months ahead.
+     */
+    @Scheduled(cron = "${audit.partitions.cron:0 0 3 * * *}")
+    @ScheduledWithLock(lockKey = "audit-log-partitions", lockDurationSeconds = 600, jobGroup = "audit")
+    public Integer createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForList("SELECT create_audit_logs_partition(?)",
+                    Date.valueOf(current.plusMonths(i).atDay(1)));
+        }
+        return monthsAhead + 1;
+    }
+
+    /**
+     * Drop every monthly partition that lies entirely before the cutoff.
+     * <p>
+     * Must not run inside a transaction: each partition is detached with {@code DETACH PARTITION CONCURRENTLY},
+     * which only takes a SHARE UPDATE EXCLUSIVE lock on {@code audit_logs}, so audit inserts and searches keep
+     * running. The detached table is then dropped on its own. A detach interrupted by a previous run is finalized.
+     *
+     * @return the number of partitions dropped
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'audit_logs'");
+
+        // CONCURRENTLY is not allowed while a default partition exists (V12 drops it when empty)
+        boolean concurrently = partitions.stream()
+                .noneMatch(row -> DEFAULT_PARTITION.equals(row.get("relname")));
+
+        int dropped = 0;
+        for (Map<String, Object> row : partitions) {
+            String partition = (String) row.get("relname");
+            LocalDate upperBound = upperBound(partition);
+            if (upperBound == null || upperBound.atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+
+            if (Boolean.TRUE.equals(row.get("inhdetachpending"))) {
+                jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition + " FINALIZE");
+            } else if (concurrently) {
+                jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition + " CONCURRENTLY");
+            } else {
+                jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition);
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Dropped audit log partition {}", partition);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Exclusive upper bound of a monthly partition, or null for anything not named audit_logs_pYYYYMM.
+     */
+    private LocalDate upperBound(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX)
+                    .plusMonths(1)
+                    .atDay(1);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -2,20 +2,29 @@ package com.template.app.audit.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.app.audit.api.dto.AuditLogSlice;
+import com.template.app.audit.api.dto.AuditRetentionResult;
 import com.template.app.audit.domain.entity.AuditLog;
 import com.template.app.audit.repository.AuditLogRepository;
+import com.template.app.audit.repository.AuditLogSpecifications;
+import com.template.app.scheduler.annotation.ScheduledWithLock;
+import com.template.app.scheduler.aspect.SchedulerLockAspect;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,23 +33,37 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuditService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditPartitionService auditPartitionService;
+    private final AuditActionRollupService auditActionRollupService;
     private final ObjectMapper objectMapper;
 
     /**
-     * Log an audit event synchronously
+     * Rows older than this are removed by retention, so read queries never need to look further back.
+     * Bounding them by created_at lets PostgreSQL prune partitions.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public AuditLog log(AuditLog.AuditAction action, String entityType, Long entityId, Long actorId, String description) {
-        AuditLog auditLog = buildAuditLog(action, entityType, entityId, actorId, description);
-        return auditLogRepository.save(auditLog);
+    @Value("${audit.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${audit.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    /**
+     * Log an audit event. The row is only queued here and written behind by {@link AuditLogWriter},
+     * so nothing is returned: the row has no id and may not be persisted yet when this returns.
+     */
+    public void log(AuditLog.AuditAction action, String entityType, Long entityId, Long actorId, String description) {
+        auditLogWriter.write(buildAuditLog(action, entityType, entityId, actorId, description));
     }
 
     /**
-     * Log an audit event with old and new values
+     * Log an audit event with old and new values; queued like {@link #log}.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public AuditLog logWithChanges(
+    public void logWithChanges(
             AuditLog.AuditAction action,
             String entityType,
             Long entityId,
@@ -54,18 +77,17 @@ public class AuditService {
         auditLog.setOldValue(toJson(oldValue));
         auditLog.setNewValue(toJson(newValue));
         auditLog.setChangedFields(changedFields);
-        return auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
-     * Log an audit event asynchronously
+     * Log an audit event asynchronously.
+     * Equivalent to {@link #log}: every audit write is already asynchronous, and request
+     * details are captured here on the caller's thread.
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAsync(AuditLog.AuditAction action, String entityType, Long entityId, Long actorId, String description) {
         try {
-            AuditLog auditLog = buildAuditLog(action, entityType, entityId, actorId, description);
-            auditLogRepository.save(auditLog);
+            auditLogWriter.write(buildAuditLog(action, entityType, entityId, actorId, description));
         } catch (Exception e) {
             log.error("Failed to save audit log asynchronously", e);
         }
@@ -74,39 +96,35 @@ public class AuditService {
     /**
      * Log a create event
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logCreate(String entityType, Long entityId, Long actorId, Object entity) {
         AuditLog auditLog = buildAuditLog(AuditLog.AuditAction.CREATE, entityType, entityId, actorId, "Created " + entityType);
         auditLog.setNewValue(toJson(entity));
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
      * Log an update event
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logUpdate(String entityType, Long entityId, Long actorId, Object oldEntity, Object newEntity, String changedFields) {
         AuditLog auditLog = buildAuditLog(AuditLog.AuditAction.UPDATE, entityType, entityId, actorId, "Updated " + entityType);
         auditLog.setOldValue(toJson(oldEntity));
         auditLog.setNewValue(toJson(newEntity));
         auditLog.setChangedFields(changedFields);
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
      * Log a delete event
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logDelete(String entityType, Long entityId, Long actorId, Object entity) {
         AuditLog auditLog = buildAuditLog(AuditLog.AuditAction.DELETE, entityType, entityId, actorId, "Deleted " + entityType);
         auditLog.setOldValue(toJson(entity));
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
      * Log a login event
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logLogin(Long userId, boolean success) {
         AuditLog auditLog = buildAuditLog(
                 AuditLog.AuditAction.LOGIN,
@@ -115,16 +133,15 @@ public class AuditService {
                 userId,
                 success ? "Login successful" : "Login failed"
         );
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
      * Log a logout event
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logLogout(Long userId) {
         AuditLog auditLog = buildAuditLog(AuditLog.AuditAction.LOGOUT, "User", userId, userId, "Logout");
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
     }
 
     /**
@@ -132,7 +149,7 @@ public class AuditService {
      */
     @Transactional(readOnly = true)
     public List<AuditLog> getEntityHistory(String entityType, Long entityId) {
-        return auditLogRepository.findEntityHistory(entityType, entityId);
+        return auditLogRepository.findEntityHistory(entityType, entityId, retentionStart());
     }
 
     /**
@@ -140,7 +157,7 @@ public class AuditService {
      */
     @Transactional(readOnly = true)
     public Page<AuditLog> getLogsByActor(Long actorId, Pageable pageable) {
-        return auditLogRepository.findByActorId(actorId, pageable);
+        return auditLogRepository.findByActorIdAndCreatedAtGreaterThanEqual(actorId, retentionStart(), pageable);
     }
 
     /**
@@ -161,7 +178,67 @@ public class AuditService {
         if (endDate == null) {
             endDate = LocalDateTime.now();
         }
-        return auditLogRepository.searchAuditLogs(entityType, action, actorId, startDate, endDate, pageable);
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST);
+        }
+        return auditLogRepository.findAll(
+                AuditLogSpecifications.search(entityType, action, actorId, startDate, endDate), pageable);
+    }
+
+    /**
+     * Get audit logs by actor, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public AuditLogSlice getLogsByActor(Long actorId, String cursor, int size) {
+        AuditCursor position = cursor != null ? AuditCursor.decode(cursor) : AuditCursor.first(LocalDateTime.now());
+        int limit = pageSize(size);
+
+        List<AuditLog> rows = auditLogRepository.findByActorIdBefore(
+                actorId, retentionStart(), position.createdAt(), position.id(), PageRequest.of(0, limit + 1));
+        return toSlice(rows, limit);
+    }
+
+    /**
+     * Search audit logs, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public AuditLogSlice searchLogs(
+            String entityType,
+            AuditLog.AuditAction action,
+            Long actorId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size
+    ) {
+        if (startDate == null) {
+            startDate = LocalDateTime.now().minusMonths(1);
+        }
+        AuditCursor position = cursor != null
+                ? AuditCursor.decode(cursor)
+                : AuditCursor.first(endDate != null ? endDate : LocalDateTime.now());
+        int limit = pageSize(size);
+
+        Specification<AuditLog> spec = AuditLogSpecifications.search(entityType, action, actorId, startDate, null)
+                .and(AuditLogSpecifications.before(position.createdAt(), position.id()));
+        return toSlice(auditLogRepository.findNewest(spec, limit + 1), limit);
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Rows were fetched with one extra to detect a following page without counting.
+     */
+    private static AuditLogSlice toSlice(List<AuditLog> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new AuditLogSlice(rows, null, false);
+        }
+
+        List<AuditLog> page = rows.subList(0, limit);
+        AuditLog last = page.get(limit - 1);
+        return new AuditLogSlice(List.copyOf(page), new AuditCursor(last.getCreatedAt(), last.getId()).encode(), true);
     }
 
     /**
@@ -169,17 +246,50 @@ public class AuditService {
      */
     @Transactional(readOnly = true)
     public Long getActionCountSince(AuditLog.AuditAction action, LocalDateTime since) {
-        return auditLogRepository.countByActionSince(action, since);
+        return auditActionRollupService.countSince(action, since);
     }
 
     /**
-     * Clean up old audit logs
+     * Clean up old audit logs.
+     * Whole monthly partitions before the cutoff are detached and dropped; only the month containing
+     * the cutoff is trimmed, with DELETEs of at most {@code audit.retention.delete-batch-size} rows.
+     * Hourly rollups before the cutoff are removed along with them.
+     * Deliberately not transactional: every step commits on its own so no lock on {@code audit_logs}
+     * is held for the whole run.
      */
-    @Transactional
-    public void cleanupOldLogs(int retentionDays) {
+    public AuditRetentionResult cleanupOldLogs(int retentionDays) {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
-        auditLogRepository.deleteByCreatedAtBefore(cutoff);
-        log.info("Cleaned up audit logs older than {} days", retentionDays);
+        int droppedPartitions = auditPartitionService.dropPartitionsBefore(cutoff);
+
+        long deletedRows = 0;
+        int deleted;
+        do {
+            deleted = auditLogRepository.deleteBatchCreatedBefore(cutoff, deleteBatchSize);
+            deletedRows += deleted;
+        } while (deleted == deleteBatchSize);
+
+        int deletedRollups = auditActionRollupService.deleteBefore(cutoff);
+
+        log.info("Cleaned up audit logs older than {} days: {} partitions dropped, {} rows deleted, {} hourly rollups deleted",
+                retentionDays, droppedPartitions, deletedRows, deletedRollups);
+        return new AuditRetentionResult(droppedPartitions, deletedRows, deletedRollups);
+    }
+
+    /**
+     * Apply the configured retention; runs daily on one instance.
+     * The job history records the rows trimmed from the boundary month as items processed.
+     */
+    @Scheduled(cron = "${audit.retention-cron:0 30 3 * * *}")
+    @ScheduledWithLock(lockKey = "audit-log-retention", lockDurationSeconds = 1800, jobGroup = "audit")
+    public SchedulerLockAspect.SchedulerJobResult applyRetention() {
+        AuditRetentionResult result = cleanupOldLogs(retentionDays);
+        String message = String.format("Dropped %d partitions, deleted %d rows and %d hourly rollups older than %d days",
+                result.droppedPartitions(), result.deletedRows(), result.deletedRollups(), retentionDays);
+        return new SchedulerLockAspect.SchedulerJobResult(message, (int) Math.min(result.deletedRows(), Integer.MAX_VALUE));
+    }
+
+    private LocalDateTime retentionStart() {
+        return LocalDate.now().minusDays(retentionDays).atStartOfDay();
     }
 
     private AuditLog buildAuditLog(AuditLog.AuditAction action, String entityType, Long entityId, Long actorId, String description) {
@@ -188,7 +298,8 @@ public class AuditService {
                 .entityType(entityType)
                 .entityId(entityId)
                 .actorId(actorId)
-                .description(description);
+                .description(description)
+                .createdAt(LocalDateTime.now());
 
         // Try to get request context
         try {
@@ -0,0 +1,35 @@
+package com.template.app.auth.api.controller;
+
+import com.template.app.auth.infrastructure.security.JwtKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for verifying access tokens")
+public class JwksController {
+
+    private final JwtKeyService jwtKeyService;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "JSON Web Key Set",
+               description = "Returns the public keys (ES256) used to sign tokens, identified by kid. Empty in HMAC mode.")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        Map<String, Object> jwks = jwtKeyService.isAsymmetric()
+                ? jwtKeyService.getJwks()
+                : Map.of("keys", List.of());
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwtKeyService.getJwksCacheSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(jwks);
+    }
+}
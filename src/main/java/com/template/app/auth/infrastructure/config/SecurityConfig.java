@@ -1,7 +1,6 @@
 package com.template.app.auth.infrastructure.config;
 
 import com.template.app.auth.infrastructure.security.JwtAuthenticationFilter;
-import com.template.app.auth.infrastructure.security.OAuth2RateLimitFilter;
 import com.template.app.common.filter.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,7 +29,6 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
-    private final java.util.Optional<OAuth2RateLimitFilter> oauth2RateLimitFilter;
     private final java.util.Optional<RateLimitFilter> rateLimitFilter;
 
     @Value("${app.oauth2.allowed-origins}")
@@ -59,6 +57,8 @@ public class SecurityConfig {
                                 "/api/v1/auth/oauth2/**",
                                 "/api/v1/auth/admin/**"
                         ).permitAll()
+                        // Public signing keys (JWKS)
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         // Actuator endpoints
                         .requestMatchers("/actuator/**").permitAll()
                         // Swagger/OpenAPI endpoints
@@ -71,17 +71,13 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 );
 
-        // Add OAuth2 rate limit filter if enabled
-        oauth2RateLimitFilter.ifPresent(filter ->
-                http.addFilterBefore(filter, UsernamePasswordAuthenticationFilter.class));
-
-        // Add rate limit filter if enabled
-        rateLimitFilter.ifPresent(filter ->
-                http.addFilterBefore(filter, UsernamePasswordAuthenticationFilter.class));
-
         // Add JWT authentication filter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Add rate limit filter if enabled (after JWT so user-keyed limits see the principal)
+        rateLimitFilter.ifPresent(filter ->
+                http.addFilterAfter(filter, JwtAuthenticationFilter.class));
+
         return http.build();
     }
 
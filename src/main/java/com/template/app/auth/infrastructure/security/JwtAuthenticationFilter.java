@@ -1,12 +1,13 @@
 package com.template.app.auth.infrastructure.security;
 
-import com.template.app.auth.infrastructure.security.JwtTokenProvider;
+import com.template.app.auth.domain.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,14 +18,40 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Authorities for every role we issue, created once instead of per request.
+     */
+    private static final Map<String, SimpleGrantedAuthority> KNOWN_AUTHORITIES = Stream.of(
+                    Arrays.stream(User.UserType.values()).map(Enum::name),
+                    Arrays.stream(User.AccountType.values()).map(Enum::name),
+                    Stream.of("USER")
+            )
+            .flatMap(Function.identity())
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), role -> new SimpleGrantedAuthority("ROLE_" + role)));
+
     private final JwtTokenProvider jwtTokenProvider;
 
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
+    /**
+     * Shared authority lists per role combination. Only combinations made entirely of
+     * known roles are cached, which keeps this map bounded.
+     */
+    private final Map<List<String>, List<SimpleGrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                    HttpServletResponse response,
@@ -33,18 +60,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractToken(request);
 
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                String userId = jwtTokenProvider.getUserIdFromToken(token);
-                String[] roles = jwtTokenProvider.getRolesFromToken(token);
+            VerifiedToken verified = token != null
+                    ? jwtTokenProvider.verifyToken(token).orElse(null)
+                    : null;
 
-                List<SimpleGrantedAuthority> authorities = Arrays.stream(roles)
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .toList();
+            if (verified != null) {
+                String userId = verified.subject();
 
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userId, null, authorities);
+                        new UsernamePasswordAuthenticationToken(userId, null, resolveAuthorities(verified.roles()));
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(authenticationDetailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -57,11 +83,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Re-authenticate on ASYNC dispatches (e.g. a request resumed by the async rate limit check).
+     * The security context is not carried across dispatches; verified claims are cached, so this is cheap.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private List<SimpleGrantedAuthority> resolveAuthorities(List<String> roles) {
+        List<SimpleGrantedAuthority> cached = authoritiesByRoles.get(roles);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(JwtAuthenticationFilter::toAuthority)
+                .toList();
+
+        if (KNOWN_AUTHORITIES.keySet().containsAll(roles)) {
+            authoritiesByRoles.putIfAbsent(roles, authorities);
+        }
+        return authorities;
+    }
+
+    private static SimpleGrantedAuthority toAuthority(String role) {
+        SimpleGrantedAuthority known = KNOWN_AUTHORITIES.get(role);
+        return known != null ? known : new SimpleGrantedAuthority("ROLE_" + role);
+    }
+
     private String extractToken(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
+        String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
         }
 
         return null;
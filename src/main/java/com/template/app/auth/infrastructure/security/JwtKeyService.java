@@ -0,0 +1,411 @@
+package com.template.app.auth.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asymmetric JWT key management.
+ * <p>
+ * In {@code ES256} signing mode each node generates its own P-256 key pair, signs with it until
+ * the next rotation, and publishes only the public half to Redis under its {@code kid}. Any node
+ * (and any downstream service via {@code /.well-known/jwks.json}) can then verify tokens locally.
+ * Private keys never leave the process.
+ * <p>
+ * Rotation is staged: the next key is published {@code jwt.key-rotation.publish-lead} before it
+ * starts signing (by default two JWKS cache windows, covering this node's cache plus the HTTP
+ * {@code max-age}), so verifiers that cached the key set already know it. A key whose publication
+ * failed is never promoted; the current key keeps signing and publication is retried.
+ * <p>
+ * Keys are resolved from a local copy of the published key index, reloaded at most once per
+ * {@code jwt.key-ids.refresh-interval}. While a reload is throttled (or running on another request), an
+ * unknown kid is looked up on its own with one GET, and kids found missing are remembered for a short
+ * while in a bounded negative cache. A key published by a peer that restarted moments ago therefore
+ * verifies at once, and repeated made-up kids do not reach Redis again.
+ * <p>
+ * Kid-less HMAC tokens are accepted in {@code ES256} mode only until {@code jwt.hmac-accept-until},
+ * the end of the migration window; without it they are rejected outright.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JwtKeyService {
+
+    public static final String MODE_HMAC = "HMAC";
+    public static final String MODE_ES256 = "ES256";
+
+    private static final String KEY_PREFIX = "jwt:jwk:";
+    private static final String KEY_IDS = "jwt:jwk-ids";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Rotation publishes to Redis; a monitor would pin the carrier thread under virtual threads
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    @Value("${jwt.signing-mode:HMAC}")
+    private String signingMode;
+
+    @Value("${jwt.key-rotation.interval:86400000}") // 1 day default
+    private long rotationInterval;
+
+    @Value("${jwt.refresh-token-validity:1209600000}") // 14 days default
+    private long refreshTokenValidity;
+
+    @Value("${jwt.jwks.cache-seconds:300}")
+    private long jwksCacheSeconds;
+
+    /**
+     * How long a key is published before it signs; negative means two JWKS cache windows.
+     */
+    @Value("${jwt.key-rotation.publish-lead:-1}")
+    private long publishLead;
+
+    @Value("${jwt.key-ids.refresh-interval:30000}")
+    private long keyIdsRefreshInterval;
+
+    /**
+     * ISO-8601 instant after which HMAC tokens are rejected in ES256 mode; blank rejects them from the start.
+     */
+    @Value("${jwt.hmac-accept-until:}")
+    private String hmacAcceptUntilValue;
+
+    /**
+     * kid -> public key for every published key this node knows. Lookup by kid is a single hash probe.
+     */
+    private final Map<String, VerificationKey> verificationKeys = new ConcurrentHashMap<>();
+
+    private final AtomicLong keyIdsRefreshedAt = new AtomicLong();
+
+    /**
+     * Kids looked up individually and found unpublished.
+     */
+    private final Cache<String, Boolean> unknownKeyIds = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * Null when HMAC tokens are accepted without limit (HMAC mode).
+     */
+    private Instant hmacAcceptUntil;
+
+    private volatile SigningKey currentKey;
+    private volatile PendingKey pendingKey;
+    private volatile CachedJwks cachedJwks;
+
+    @PostConstruct
+    public void init() {
+        if (!MODE_HMAC.equals(signingMode) && !MODE_ES256.equals(signingMode)) {
+            throw new IllegalStateException("Unsupported jwt.signing-mode: " + signingMode);
+        }
+
+        if (isAsymmetric()) {
+            hmacAcceptUntil = hmacAcceptUntilValue.isBlank() ? Instant.EPOCH : Instant.parse(hmacAcceptUntilValue);
+            if (hmacAcceptUntil.isAfter(Instant.now())) {
+                log.info("HMAC-signed JWTs accepted until {}", hmacAcceptUntil);
+            }
+
+            // Nothing to fall back to on startup: the first key signs right away, but only once published
+            SigningKey initial = generateAndPublish(System.currentTimeMillis());
+            if (initial == null) {
+                throw new IllegalStateException("Could not publish the initial JWT signing key to Redis");
+            }
+            currentKey = initial;
+            log.info("JWT signing key {} in use", initial.kid());
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return MODE_ES256.equals(signingMode);
+    }
+
+    public SigningKey getCurrentSigningKey() {
+        return currentKey;
+    }
+
+    /**
+     * Whether a kid-less, HMAC-signed token may still be verified with the shared secret.
+     */
+    public boolean acceptsHmac() {
+        return hmacAcceptUntil == null || Instant.now().isBefore(hmacAcceptUntil);
+    }
+
+    /**
+     * When HMAC tokens stop being accepted, or null if they always are.
+     */
+    public Instant getHmacAcceptUntil() {
+        return hmacAcceptUntil;
+    }
+
+    /**
+     * Publish the next key {@code publish-lead} before the current one is due, and promote it once it
+     * has been published for that long.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.check-interval:60000}")
+    public void rotateIfDue() {
+        if (!isAsymmetric()) {
+            return;
+        }
+
+        rotationLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            long lead = publishLeadMillis();
+
+            PendingKey pending = pendingKey;
+            if (pending != null) {
+                if (now - pending.publishedAt() >= lead) {
+                    promote(pending, now);
+                }
+                return;
+            }
+
+            SigningKey current = currentKey;
+            if (current == null || now - current.createdAt() >= rotationInterval - lead) {
+                SigningKey next = generateAndPublish(now);
+                if (next != null) {
+                    pendingKey = new PendingKey(next, now);
+                    log.info("Published next JWT signing key {}, signing with it in {} ms", next.kid(), lead);
+                }
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private void promote(PendingKey pending, long now) {
+        SigningKey key = pending.key();
+        currentKey = new SigningKey(key.kid(), key.privateKey(), now);
+        pendingKey = null;
+        pruneExpiredKeys(now);
+        log.info("Rotated JWT signing key, new kid: {}", key.kid());
+    }
+
+    /**
+     * Generate a key pair and publish its public half.
+     *
+     * @return the key, or null if it could not be published and must not be used
+     */
+    private SigningKey generateAndPublish(long now) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        String kid = UUID.randomUUID().toString();
+
+        // Verifiable while pending, while signing, and for as long as the last token it signed can live
+        long retention = publishLeadMillis() + rotationInterval + refreshTokenValidity;
+
+        try {
+            String encoded = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+            redisTemplate.opsForValue().set(KEY_PREFIX + kid, encoded, retention, TimeUnit.MILLISECONDS);
+            redisTemplate.opsForSet().add(KEY_IDS, kid);
+            cachedJwks = null;
+        } catch (Exception e) {
+            log.warn("Failed to publish JWT public key {}, will retry: {}", kid, e.getMessage());
+            return null;
+        }
+
+        verificationKeys.put(kid, new VerificationKey(keyPair.getPublic(), now + retention));
+        return new SigningKey(kid, keyPair.getPrivate(), now);
+    }
+
+    private long publishLeadMillis() {
+        return publishLead >= 0 ? publishLead : 2 * TimeUnit.SECONDS.toMillis(jwksCacheSeconds);
+    }
+
+    private void pruneExpiredKeys(long now) {
+        verificationKeys.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= now);
+    }
+
+    /**
+     * Resolve the public key for a kid from the keys this node knows. An unknown kid reloads the published
+     * key index if the last reload is older than {@code jwt.key-ids.refresh-interval}; otherwise the kid is
+     * looked up on its own, unless it was recently found missing.
+     *
+     * @return the public key, or null if no such key is published
+     */
+    public PublicKey findVerificationKey(String kid) {
+        VerificationKey local = verificationKeys.get(kid);
+        if (local != null) {
+            return local.publicKey();
+        }
+
+        if (refreshKeyIdsIfDue()) {
+            local = verificationKeys.get(kid);
+            return local != null ? local.publicKey() : null;
+        }
+
+        if (unknownKeyIds.getIfPresent(kid) != null) {
+            return null;
+        }
+        PublicKey published = loadVerificationKey(kid);
+        if (published == null) {
+            unknownKeyIds.put(kid, Boolean.TRUE);
+        }
+        return published;
+    }
+
+    /**
+     * Reload the published key index if it is due; only the caller that claims the refresh performs it.
+     *
+     * @return whether this call reloaded the index
+     */
+    private boolean refreshKeyIdsIfDue() {
+        long now = System.currentTimeMillis();
+        long last = keyIdsRefreshedAt.get();
+        if (now - last < keyIdsRefreshInterval || !keyIdsRefreshedAt.compareAndSet(last, now)) {
+            return false;
+        }
+
+        try {
+            Set<String> kids = redisTemplate.opsForSet().members(KEY_IDS);
+            if (kids != null) {
+                for (String kid : kids) {
+                    if (!verificationKeys.containsKey(kid)) {
+                        loadVerificationKey(kid);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh published JWT key ids: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Load a published key into the local map, keeping it until its Redis entry expires.
+     *
+     * @return the public key, or null if it is no longer published
+     */
+    private PublicKey loadVerificationKey(String kid) {
+        PublicKey published = loadPublishedKey(kid);
+        if (published == null) {
+            return null;
+        }
+
+        Long ttl = null;
+        try {
+            ttl = redisTemplate.getExpire(KEY_PREFIX + kid, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.debug("Failed to read expiry of JWT public key {}: {}", kid, e.getMessage());
+        }
+        long expiresAt = System.currentTimeMillis() + (ttl != null && ttl > 0 ? ttl : rotationInterval);
+        verificationKeys.put(kid, new VerificationKey(published, expiresAt));
+        return published;
+    }
+
+    private PublicKey loadPublishedKey(String kid) {
+        try {
+            String encoded = redisTemplate.opsForValue().get(KEY_PREFIX + kid);
+            if (encoded == null) {
+                return null;
+            }
+            return KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (Exception e) {
+            log.warn("Failed to load JWT public key {}: {}", kid, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * JWK Set of all published public keys, cached for {@code jwt.jwks.cache-seconds}.
+     */
+    public Map<String, Object> getJwks() {
+        CachedJwks cached = cachedJwks;
+        long now = System.currentTimeMillis();
+        if (cached != null && now < cached.expiresAt()) {
+            return cached.jwks();
+        }
+
+        List<Map<String, Object>> keys = new ArrayList<>();
+        Set<String> kids = redisTemplate.opsForSet().members(KEY_IDS);
+        if (kids != null) {
+            for (String kid : kids) {
+                VerificationKey local = verificationKeys.get(kid);
+                PublicKey publicKey = local != null ? local.publicKey() : loadVerificationKey(kid);
+                if (publicKey instanceof ECPublicKey ecPublicKey) {
+                    keys.add(toJwk(kid, ecPublicKey));
+                } else {
+                    // Key has expired from Redis; drop it from the index
+                    redisTemplate.opsForSet().remove(KEY_IDS, kid);
+                }
+            }
+        }
+
+        Map<String, Object> jwks = Map.of("keys", List.copyOf(keys));
+        cachedJwks = new CachedJwks(jwks, now + TimeUnit.SECONDS.toMillis(jwksCacheSeconds));
+        return jwks;
+    }
+
+    public long getJwksCacheSeconds() {
+        return jwksCacheSeconds;
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", MODE_ES256);
+        jwk.put("x", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineX(), 32)));
+        jwk.put("y", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineY(), 32)));
+        return jwk;
+    }
+
+    /**
+     * Unsigned big-endian encoding padded or trimmed to the curve's coordinate size.
+     */
+    private static byte[] toFixedLength(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+
+        byte[] fixed = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, fixed, length - copy, copy);
+        return fixed;
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey, long createdAt) {
+    }
+
+    private record PendingKey(SigningKey key, long publishedAt) {
+    }
+
+    private record VerificationKey(PublicKey publicKey, long expiresAt) {
+    }
+
+    private record CachedJwks(Map<String, Object> jwks, long expiresAt) {
+    }
+}
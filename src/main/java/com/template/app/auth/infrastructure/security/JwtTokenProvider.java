@@ -1,6 +1,10 @@
 package com.template.app.auth.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.InvalidKeyException;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +15,15 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -28,9 +40,26 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-validity:1209600000}") // 14 days default
     private long refreshTokenValidity;
 
+    @Value("${jwt.claims-cache.maximum-size:10000}")
+    private long claimsCacheMaximumSize;
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final JwtKeyService jwtKeyService;
     private SecretKey key;
 
+    /**
+     * Thread-safe, immutable parser built once. Keys are resolved per token by {@code kid}:
+     * tokens without a kid are HMAC-signed, tokens with one are verified with the published public key.
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Verified claims keyed by SHA-256 digest of the raw token.
+     * Each entry expires exactly at the token's {@code exp}, so a cached hit is always still valid.
+     */
+    private Cache<String, VerifiedToken> verifiedTokenCache;
+
     @Value("${spring.profiles.active:local}")
     private String activeProfile;
 
@@ -40,6 +69,13 @@ public class JwtTokenProvider {
     public void init() {
         validateSecretKey();
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new SigningKeyLocator())
+                .build();
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     private void validateSecretKey() {
@@ -69,14 +105,15 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenValidity);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userId)
                 .claim("roles", roles)
                 .claim("type", "ACCESS")
+                .claim("jti", java.util.UUID.randomUUID().toString())
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key) // Auto-detects algorithm from key
-                .compact();
+                .setExpiration(expiryDate);
+
+        return sign(builder).compact();
     }
 
     public String generateRefreshToken(String userId) {
@@ -86,14 +123,14 @@ public class JwtTokenProvider {
         // Add a unique identifier to ensure tokens are different even if generated in same millisecond
         String jti = java.util.UUID.randomUUID().toString();
 
-        String token = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userId)
                 .claim("type", "REFRESH")
                 .claim("jti", jti)
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key) // Auto-detects algorithm from key
-                .compact();
+                .setExpiration(expiryDate);
+
+        String token = sign(builder).compact();
 
         // Store in Redis for validation and rotation
         redisTemplate.opsForValue().set(
@@ -106,74 +143,179 @@ public class JwtTokenProvider {
         return token;
     }
 
-    public boolean validateToken(String token) {
-        if (token == null || token.isBlank()) {
-            return false;
+    /**
+     * Sign with the node's current ES256 key (stamping its kid) or with the shared HMAC secret.
+     */
+    private JwtBuilder sign(JwtBuilder builder) {
+        if (jwtKeyService.isAsymmetric()) {
+            JwtKeyService.SigningKey signingKey = jwtKeyService.getCurrentSigningKey();
+            return builder
+                    .header().keyId(signingKey.kid()).and()
+                    .signWith(signingKey.privateKey(), Jwts.SIG.ES256);
         }
+        return builder.signWith(key); // Auto-detects algorithm from key
+    }
 
-        // Check if token is blacklisted
-        if (isBlacklisted(token)) {
-            log.warn("Token is blacklisted");
-            return false;
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
+    /**
+     * Verify a token once and return its claims.
+     * The signature is checked only on the first sighting of a token; later calls are served
+     * from the verified-claims cache. The blacklist is still consulted on every call.
+     *
+     * @param token raw compact JWT
+     * @return verified claims, or empty if the token is missing, invalid, expired or blacklisted
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
         }
 
+        VerifiedToken verified;
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            verified = getVerifiedToken(token);
         } catch (ExpiredJwtException e) {
             log.error("JWT token expired: {}", e.getMessage());
+            return Optional.empty();
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
-        return false;
+
+        // Check if token is blacklisted (answered from the local replica)
+        if (tokenBlacklistService.isRevoked(blacklistId(token, verified))) {
+            log.warn("Token is blacklisted");
+            return Optional.empty();
+        }
+
+        return Optional.of(verified);
     }
 
     public void blacklistToken(String token) {
         try {
-            Claims claims = getClaims(token);
-            long ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
-
-            if (ttl > 0) {
-                redisTemplate.opsForValue().set(
-                        "blacklist:" + token,
-                        true,
-                        ttl,
-                        TimeUnit.MILLISECONDS
-                );
-            }
+            VerifiedToken verified = getVerifiedToken(token);
+            tokenBlacklistService.revoke(blacklistId(token, verified), verified.expiresAt().toEpochMilli());
         } catch (Exception e) {
             log.error("Error blacklisting token: {}", e.getMessage());
         }
     }
 
     public boolean isBlacklisted(String token) {
-        return Boolean.TRUE.equals(
-                redisTemplate.opsForValue().get("blacklist:" + token)
-        );
+        VerifiedToken verified = null;
+        try {
+            verified = getVerifiedToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Checking blacklist for unverifiable token: {}", e.getMessage());
+        }
+        return tokenBlacklistService.isRevoked(blacklistId(token, verified));
+    }
+
+    /**
+     * Blacklist entries are keyed by jti, or by the token digest for tokens issued without one.
+     */
+    private static String blacklistId(String token, VerifiedToken verified) {
+        if (verified != null && verified.jti() != null) {
+            return verified.jti();
+        }
+        return digest(token);
     }
 
     public String getUserIdFromToken(String token) {
-        return getClaims(token).getSubject();
+        return getVerifiedToken(token).subject();
     }
 
     public String[] getRolesFromToken(String token) {
-        @SuppressWarnings("unchecked")
-        java.util.List<String> rolesList = (java.util.List<String>) getClaims(token).get("roles");
-        return rolesList != null ? rolesList.toArray(new String[0]) : new String[0];
+        return getVerifiedToken(token).rolesArray();
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Return cached claims for the token, parsing and verifying it on a cache miss.
+     *
+     * @throws JwtException if the token cannot be verified
+     */
+    private VerifiedToken getVerifiedToken(String token) {
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+        VerifiedToken verified = VerifiedToken.from(jws.getPayload());
+
+        Instant hmacAcceptUntil = jwtKeyService.getHmacAcceptUntil();
+        if (jws.getHeader().getKeyId() == null && hmacAcceptUntil != null
+                && hmacAcceptUntil.isBefore(verified.expiresAt())) {
+            // An HMAC token must not outlive the migration window through the cache
+            Duration remaining = Duration.between(Instant.now(), hmacAcceptUntil);
+            verifiedTokenCache.policy().expireVariably().ifPresent(policy ->
+                    policy.put(cacheKey, verified, remaining.isNegative() ? Duration.ZERO : remaining));
+            return verified;
+        }
+
+        verifiedTokenCache.put(cacheKey, verified);
+        return verified;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public long getAccessTokenValidity() {
         return accessTokenValidity / 1000; // Convert to seconds
     }
+
+    /**
+     * Picks the verification key from the token header: the HMAC secret when there is no kid and
+     * HMAC is still accepted, otherwise the published public key for that kid.
+     */
+    private class SigningKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                if (!jwtKeyService.acceptsHmac()) {
+                    throw new InvalidKeyException("HMAC-signed JWTs are no longer accepted");
+                }
+                return key;
+            }
+
+            PublicKey publicKey = jwtKeyService.findVerificationKey(kid);
+            if (publicKey == null) {
+                throw new InvalidKeyException("Unknown JWT signing key id: " + kid);
+            }
+            return publicKey;
+        }
+    }
+
+    /**
+     * Expires each cached token at its own {@code exp} claim.
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remaining = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(remaining, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,200 @@
+package com.template.app.auth.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked-token registry with an in-process replica of the Redis blacklist.
+ * <p>
+ * Every node keeps the full set of revoked token ids in memory, so the common
+ * "not revoked" answer never leaves the JVM. Revocations are written to Redis
+ * (source of truth), applied locally and broadcast over pub/sub to the other nodes.
+ * A periodic SCAN-based resync repairs anything missed while a node was disconnected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenBlacklistService implements MessageListener {
+
+    private static final String KEY_PREFIX = "blacklist:";
+    private static final String CHANNEL = "token-blacklist";
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.blacklist.local-maximum-size:100000}")
+    private long localMaximumSize;
+
+    /**
+     * Revoked id -> expiry (epoch millis). Entries disappear once the token itself would have expired.
+     */
+    private Cache<String, Long> revoked;
+
+    /**
+     * Set once the local replica has had to evict a live entry; from then on local misses are confirmed in Redis.
+     */
+    private volatile boolean overflowed = false;
+
+    @PostConstruct
+    public void init() {
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfter(new RevocationExpiry())
+                .evictionListener((String id, Long expiresAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && !overflowed) {
+                        overflowed = true;
+                        log.warn("Local token blacklist exceeded {} entries; falling back to Redis on local misses",
+                                localMaximumSize);
+                    }
+                })
+                .build();
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Revoke a token id until the given expiry.
+     *
+     * @param id              token jti, or a digest of the raw token when it has no jti
+     * @param expiresAtMillis token expiry in epoch millis
+     */
+    public void revoke(String id, long expiresAtMillis) {
+        long ttl = expiresAtMillis - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return;
+        }
+
+        redisTemplate.opsForValue().set(KEY_PREFIX + id, String.valueOf(expiresAtMillis), ttl, TimeUnit.MILLISECONDS);
+        revoked.put(id, expiresAtMillis);
+        redisTemplate.convertAndSend(CHANNEL, id + ":" + expiresAtMillis);
+    }
+
+    public boolean isRevoked(String id) {
+        if (revoked.getIfPresent(id) != null) {
+            return true;
+        }
+        if (!overflowed) {
+            return false;
+        }
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + id));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed blacklist message: {}", body);
+            return;
+        }
+
+        try {
+            revoked.put(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed blacklist message: {}", body);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resync();
+    }
+
+    /**
+     * Reload the local replica from Redis using cursor-based SCAN.
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist.resync-interval:300000}")
+    public void resync() {
+        try {
+            int loaded = 0;
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(SCAN_BATCH_SIZE).build();
+
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == SCAN_BATCH_SIZE) {
+                        loaded += loadBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            loaded += loadBatch(batch);
+
+            log.debug("Token blacklist resynced: {} revoked ids loaded", loaded);
+        } catch (Exception e) {
+            log.warn("Token blacklist resync failed: {}", e.getMessage());
+        }
+    }
+
+    private int loadBatch(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return 0;
+        }
+
+        int loaded = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            try {
+                revoked.put(keys.get(i).substring(KEY_PREFIX.length()), Long.parseLong(value));
+                loaded++;
+            } catch (NumberFormatException e) {
+                log.debug("Skipping blacklist entry with unexpected value: {}", keys.get(i));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Expires each revocation at the revoked token's own expiry.
+     */
+    private static class RevocationExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long expiresAtMillis, long currentTime) {
+            long remaining = expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAtMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.template.app.auth.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been verified.
+ * Produced once per token by {@link JwtTokenProvider#verifyToken(String)} and reused
+ * for every subsequent lookup of the same token.
+ */
+public record VerifiedToken(
+        String subject,
+        List<String> roles,
+        String type,
+        Instant expiresAt,
+        String jti
+) {
+
+    public VerifiedToken {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    static VerifiedToken from(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) claims.get("roles");
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new MalformedJwtException("JWT token has no expiration");
+        }
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                roles,
+                claims.get("type", String.class),
+                expiration.toInstant(),
+                claims.get("jti", String.class)
+        );
+    }
+
+    public String[] rolesArray() {
+        return roles.toArray(new String[0]);
+    }
+}
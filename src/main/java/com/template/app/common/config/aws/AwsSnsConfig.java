@@ -10,12 +10,16 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.InstanceProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 
+import java.time.Duration;
+
 /**
  * Configuration for AWS SNS (Simple Notification Service).
- * Provides SnsClient bean for push notifications.
+ * Provides SnsClient for single-user pushes and SnsAsyncClient for bulk fan-out.
  */
 @Slf4j
 @Configuration
@@ -37,6 +41,12 @@ public class AwsSnsConfig {
     @Value("${aws.sns.enabled:false}")
     private boolean enabled;
 
+    @Value("${aws.sns.async.max-concurrency:128}")
+    private int asyncMaxConcurrency;
+
+    @Value("${aws.sns.async.connection-acquisition-timeout:10000}")
+    private long asyncAcquisitionTimeoutMs;
+
     /**
      * Creates SNS client bean.
      * Uses credentials from application.yml or IAM role if configured.
@@ -46,26 +56,44 @@ public class AwsSnsConfig {
     public SnsClient snsClient() {
         log.info("Initializing AWS SNS client for region: {}", region);
 
-        AwsCredentialsProvider credentialsProvider;
-
-        if (useIamCredentials) {
-            log.info("Using IAM instance profile credentials for SNS");
-            credentialsProvider = InstanceProfileCredentialsProvider.create();
-        } else if (accessKey != null && !accessKey.isEmpty()) {
-            log.info("Using explicit AWS credentials for SNS");
-            AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
-            credentialsProvider = StaticCredentialsProvider.create(awsCredentials);
-        } else {
-            throw new IllegalStateException("AWS SNS is enabled but no credentials configured");
-        }
-
         SnsClient client = SnsClient.builder()
             .region(Region.of(region))
-            .credentialsProvider(credentialsProvider)
+            .credentialsProvider(credentialsProvider())
             .build();
 
         log.info("AWS SNS client initialized successfully");
 
         return client;
     }
+
+    /**
+     * Creates the non-blocking SNS client used for bulk push fan-out.
+     * Connections are capped so a campaign cannot exhaust sockets; callers bound in-flight requests themselves.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aws.sns", name = "enabled", havingValue = "true")
+    public SnsAsyncClient snsAsyncClient() {
+        log.info("Initializing AWS SNS async client for region: {} (max concurrency {})", region, asyncMaxConcurrency);
+
+        return SnsAsyncClient.builder()
+            .region(Region.of(region))
+            .credentialsProvider(credentialsProvider())
+            .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(asyncMaxConcurrency)
+                .connectionAcquisitionTimeout(Duration.ofMillis(asyncAcquisitionTimeoutMs)))
+            .build();
+    }
+
+    private AwsCredentialsProvider credentialsProvider() {
+        if (useIamCredentials) {
+            log.info("Using IAM instance profile credentials for SNS");
+            return InstanceProfileCredentialsProvider.create();
+        }
+        if (accessKey != null && !accessKey.isEmpty()) {
+            log.info("Using explicit AWS credentials for SNS");
+            AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
+            return StaticCredentialsProvider.create(awsCredentials);
+        }
+        throw new IllegalStateException("AWS SNS is enabled but no credentials configured");
+    }
 }
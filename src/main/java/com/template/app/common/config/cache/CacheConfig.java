@@ -1,21 +1,28 @@
 package com.template.app.common.config.cache;
 
+import com.template.app.scheduler.service.DistributedLockService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
 
-import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Spring Cache configuration with Redis backend
+ * Spring Cache configuration with a Caffeine L1 in front of Redis
  * Enables caching and scheduled tasks for cache maintenance
  */
 @Configuration
@@ -24,28 +31,63 @@ import java.time.Duration;
 public class CacheConfig {
 
     /**
-     * Configures Redis-based cache manager
+     * Configures the two-level (Caffeine + Redis) cache manager
      *
      * @param connectionFactory Redis connection factory
-     * @return CacheManager configured for Redis
+     * @return transaction-aware CacheManager with a local tier per cache
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofSeconds(604800)) // 7 days default TTL
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheProperties cacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer redisMessageListenerContainer,
+                                     DistributedLockService distributedLockService,
+                                     MeterRegistry meterRegistry) {
+        // Each named cache gets its own TTL, key prefix and serializer; anything else uses app.cache.redis
+        Map<String, RedisCacheConfiguration> initialConfigurations = new LinkedHashMap<>();
+        cacheProperties.getCaches().keySet()
+            .forEach(name -> initialConfigurations.put(name, redisCacheConfiguration(name, cacheProperties)));
+
+        RedisCacheWriter cacheWriter = new InstrumentedRedisCacheWriter(
+            new JitteredRedisCacheWriter(
+                // SCAN instead of the default KEYS for Cache.clear() and @CacheEvict(allEntries = true)
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                    BatchStrategies.scan(cacheProperties.getScan().getCount())),
+                cacheProperties::ttlJitter),
+            meterRegistry);
+
+        // L2; transaction awareness is applied once, on the two-level cache
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
+            .cacheDefaults(redisCacheConfiguration(null, cacheProperties))
+            .withInitialCacheConfigurations(initialConfigurations)
+            .build();
+        redisCacheManager.initializeCaches();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            redisCacheManager, cacheProperties, stringRedisTemplate, redisMessageListenerContainer,
+            distributedLockService, meterRegistry);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    /**
+     * Redis settings for one cache, or the defaults when {@code cacheName} is null
+     */
+    private static RedisCacheConfiguration redisCacheConfiguration(String cacheName, CacheProperties cacheProperties) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+            // Entries outlive their freshness by the stale-while-revalidate window
+            .entryTtl(cacheProperties.ttl(cacheName).plus(cacheProperties.staleWhileRevalidate(cacheName)))
             .serializeKeysWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
             )
             .serializeValuesWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(
-                    new GenericJackson2JsonRedisSerializer()
+                    CacheSerializers.valueSerializer(cacheName, cacheProperties)
                 )
             )
             .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(cacheConfiguration)
-            .transactionAware()
-            .build();
+        String keyPrefix = cacheProperties.keyPrefix(cacheName);
+        return StringUtils.hasText(keyPrefix) ? configuration.computePrefixWith(name -> keyPrefix) : configuration;
     }
 }
@@ -38,9 +38,10 @@ public class CacheController {
     @Operation(summary = "Clear cache by pattern", description = "Clears cache entries matching the specified pattern")
     public ResponseEntity<Map<String, Object>> clearCache(@RequestParam String pattern) {
         Map<String, Object> response = new HashMap<>();
-        boolean success = cacheMetricsService.clearCache(pattern);
-        response.put("success", success);
+        long removed = cacheMetricsService.clearCache(pattern);
+        response.put("success", removed >= 0);
         response.put("pattern", pattern);
+        response.put("removed", Math.max(removed, 0));
         response.put("timestamp", System.currentTimeMillis());
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,30 @@
+package com.template.app.common.config.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cached value stamped with when it stops being fresh and how long it took to compute.
+ * Used by caches that serve stale values or refresh early; see {@link CacheProperties.LoadConfig}.
+ *
+ * @param value         the cached value
+ * @param freshUntil    epoch millis after which the value is stale
+ * @param computeMillis time the loader took, which scales the early refresh window
+ */
+record CacheEntry(Object value, long freshUntil, int computeMillis) {
+
+    boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    /**
+     * XFetch: refresh ahead of expiry with a probability that rises as expiry nears and
+     * with the cost of recomputation, so one caller refreshes before the herd arrives.
+     */
+    boolean shouldRefreshEarly(long now, double beta) {
+        if (beta <= 0 || computeMillis <= 0) {
+            return false;
+        }
+        double gap = -computeMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0));
+        return now + gap >= freshUntil;
+    }
+}
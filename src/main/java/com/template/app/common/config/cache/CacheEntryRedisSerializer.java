@@ -0,0 +1,55 @@
+package com.template.app.common.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stores a {@link CacheEntry} as a header ({@code 0xFE}, fresh-until millis, compute millis)
+ * followed by the value in the cache's own format. Values without the header, written before
+ * freshness tracking was enabled, are read as plain values.
+ */
+class CacheEntryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MARKER = (byte) 0xFE;
+    private static final int HEADER_LENGTH = 1 + Long.BYTES + Integer.BYTES;
+
+    private final RedisSerializer<Object> delegate;
+
+    CacheEntryRedisSerializer(RedisSerializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof CacheEntry entry)) {
+            return delegate.serialize(value);
+        }
+
+        byte[] payload = delegate.serialize(entry.value());
+        int payloadLength = payload != null ? payload.length : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadLength)
+                .put(MARKER)
+                .putLong(entry.freshUntil())
+                .putInt(entry.computeMillis());
+        if (payload != null) {
+            buffer.put(payload);
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MARKER) {
+            return delegate.deserialize(bytes);
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(bytes, 1, HEADER_LENGTH - 1);
+        long freshUntil = header.getLong();
+        int computeMillis = header.getInt();
+        Object value = delegate.deserialize(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+        return new CacheEntry(value, freshUntil, computeMillis);
+    }
+}
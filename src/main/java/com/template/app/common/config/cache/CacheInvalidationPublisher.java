@@ -0,0 +1,11 @@
+package com.template.app.common.config.cache;
+
+/**
+ * Broadcasts L1 invalidations to the other nodes.
+ */
+public interface CacheInvalidationPublisher {
+
+    void publishEvict(String cacheName, String key);
+
+    void publishClear(String cacheName);
+}
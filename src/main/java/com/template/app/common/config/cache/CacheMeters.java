@@ -0,0 +1,201 @@
+package com.template.app.common.config.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer meters for one two-level cache, all tagged {@code cache=<name>}.
+ * <ul>
+ *   <li>{@code cache.requests{tier=l1|l2, result=hit|miss}}: lookups per tier; L2 is only consulted on an L1 miss</li>
+ *   <li>{@code cache.get.latency}, {@code cache.put.latency}: end-to-end latency including both tiers</li>
+ *   <li>{@code cache.loads{result=success|failure}}: time spent in value loaders</li>
+ *   <li>{@code cache.l2.latency{operation=get|put}}, {@code cache.payload.size{operation=read|write}}:
+ *       Redis round trips and serialized value sizes, recorded by {@link InstrumentedRedisCacheWriter}</li>
+ *   <li>{@code cache.l1.size}, {@code cache.l1.evictions{cause}}, {@code cache.evictions}: L1 occupancy and removals</li>
+ * </ul>
+ */
+class CacheMeters {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final String cacheName;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Timer getLatency;
+    private final Timer putLatency;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+    private final Counter evictions;
+    private final LongAdder l1Evictions = new LongAdder();
+
+    CacheMeters(MeterRegistry registry, String cacheName) {
+        this.registry = registry;
+        this.cacheName = cacheName;
+        this.l1Hits = requests("l1", "hit");
+        this.l1Misses = requests("l1", "miss");
+        this.l2Hits = requests("l2", "hit");
+        this.l2Misses = requests("l2", "miss");
+        this.getLatency = latency("cache.get.latency", "Cache lookup latency across both tiers");
+        this.putLatency = latency("cache.put.latency", "Cache write latency across both tiers");
+        this.loadSuccess = loads("success");
+        this.loadFailure = loads("failure");
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Explicit cache evictions")
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    static Timer l2Latency(MeterRegistry registry, String cacheName, String operation) {
+        return Timer.builder("cache.l2.latency")
+                .description("Redis round trip per cache operation")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    static DistributionSummary payloadSize(MeterRegistry registry, String cacheName, String operation) {
+        return DistributionSummary.builder("cache.payload.size")
+                .description("Serialized cache value size")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /**
+     * Track the L1 size; called once the Caffeine cache exists.
+     */
+    void bindLocal(com.github.benmanes.caffeine.cache.Cache<?, ?> local) {
+        Gauge.builder("cache.l1.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Approximate number of L1 entries")
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    void l1Evicted(RemovalCause cause) {
+        l1Evictions.increment();
+        Counter.builder("cache.l1.evictions")
+                .description("L1 entries removed by size or expiry")
+                .tag("cache", cacheName)
+                .tag("cause", cause.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    void l1Hit() {
+        l1Hits.increment();
+    }
+
+    void l1Miss() {
+        l1Misses.increment();
+    }
+
+    void l2Hit() {
+        l2Hits.increment();
+    }
+
+    void l2Miss() {
+        l2Misses.increment();
+    }
+
+    void evicted() {
+        evictions.increment();
+    }
+
+    void recordGet(long startedAtNanos) {
+        getLatency.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordPut(long startedAtNanos) {
+        putLatency.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordLoad(long startedAtNanos, boolean success) {
+        (success ? loadSuccess : loadFailure).record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Point-in-time view for {@code /api/v1/cache/metrics}.
+     */
+    Map<String, Object> summary() {
+        double l1HitCount = l1Hits.count();
+        double l2HitCount = l2Hits.count();
+        double requests = l1HitCount + l1Misses.count();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", (long) requests);
+        summary.put("hits", (long) (l1HitCount + l2HitCount));
+        summary.put("misses", (long) l2Misses.count());
+        summary.put("hitRatio", ratio(l1HitCount + l2HitCount, requests));
+        summary.put("l1HitRatio", ratio(l1HitCount, requests));
+        summary.put("l2HitRatio", ratio(l2HitCount, l2HitCount + l2Misses.count()));
+        summary.put("loads", loadSuccess.count());
+        summary.put("loadFailures", loadFailure.count());
+        summary.put("loadMeanMs", loadSuccess.mean(TimeUnit.MILLISECONDS));
+        summary.put("getLatencyMs", percentiles(getLatency));
+        summary.put("putLatencyMs", percentiles(putLatency));
+        summary.put("l2GetLatencyMs", percentiles(l2Latency(registry, cacheName, "get")));
+        summary.put("l2PutLatencyMs", percentiles(l2Latency(registry, cacheName, "put")));
+        summary.put("payloadReadMeanBytes", payloadSize(registry, cacheName, "read").mean());
+        summary.put("payloadWriteMeanBytes", payloadSize(registry, cacheName, "write").mean());
+        summary.put("evictions", (long) evictions.count());
+        summary.put("l1Evictions", l1Evictions.sum());
+        return summary;
+    }
+
+    private Counter requests(String tier, String result) {
+        return Counter.builder("cache.requests")
+                .description("Cache lookups per tier")
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer latency(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("cache", cacheName)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer loads(String result) {
+        return Timer.builder("cache.loads")
+                .description("Time spent computing missing values")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double ratio(double part, double total) {
+        return total > 0 ? part / total : 0.0;
+    }
+
+    private static Map<String, Double> percentiles(Timer timer) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("mean", timer.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            values.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        values.put("max", timer.max(TimeUnit.MILLISECONDS));
+        return values;
+    }
+}
@@ -2,23 +2,35 @@ package com.template.app.common.config.cache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CacheMetricsService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
     private final RedisConnectionFactory redisConnectionFactory;
+    private final RedisKeyScanner keyScanner;
+    private final CacheProperties cacheProperties;
+    private final CacheManager cacheManager;
+
+    // Not synchronized: sampling does Redis I/O, which would pin a virtual carrier thread
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    private volatile KeyEstimate keyEstimate;
 
     public Map<String, Object> getCacheMetrics() {
         Map<String, Object> metrics = new HashMap<>();
@@ -49,6 +61,11 @@ public class CacheMetricsService {
                 connection.close();
             }
 
+            // Per-cache hit ratios, latencies and payload sizes from the Micrometer meters
+            if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+                metrics.put("caches", twoLevelCacheManager.getStatistics());
+            }
+
             metrics.put("healthy", true);
 
         } catch (Exception e) {
@@ -60,56 +77,101 @@ public class CacheMetricsService {
         return metrics;
     }
 
-    private Map<String, Long> getKeyCountsByPattern() {
-        Map<String, Long> patternCounts = new HashMap<>();
+    /**
+     * Estimated key counts per pattern from a random sample of the keyspace, reused for
+     * {@code app.cache.stats.refresh-interval}. Never walks the keyspace.
+     */
+    private Map<String, Object> getKeyCountsByPattern() {
+        Map<String, Object> result = new HashMap<>();
 
         try {
-            // Count keys for common patterns
-            String[] patterns = {
-                    "rate_limit:*",
-                    "session:*",
-                    "cache:*",
-                    "verification:*"
-            };
-
-            for (String pattern : patterns) {
-                Set<String> keys = redisTemplate.keys(pattern);
-                patternCounts.put(pattern, keys != null ? (long) keys.size() : 0L);
+            KeyEstimate estimate = keyEstimate;
+            long now = System.currentTimeMillis();
+            if (estimate == null || now >= estimate.expiresAt()) {
+                estimate = sampleKeyCounts(now);
+                keyEstimate = estimate;
             }
 
+            result.put("counts", estimate.counts());
+            result.put("sampleSize", estimate.sampleSize());
+            result.put("sampledAt", estimate.sampledAt());
+            result.put("estimated", true);
         } catch (Exception e) {
             log.error("Failed to count keys by pattern", e);
         }
 
-        return patternCounts;
+        return result;
     }
 
-    public boolean clearCache(String pattern) {
+    private KeyEstimate sampleKeyCounts(long now) {
+        sampleLock.lock();
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.info("Cleared {} keys matching pattern: {}", keys.size(), pattern);
-                return true;
+            KeyEstimate current = keyEstimate;
+            if (current != null && now < current.expiresAt()) {
+                return current;
             }
-            log.info("No keys found matching pattern: {}", pattern);
-            return true;
+
+            CacheProperties.StatsConfig stats = cacheProperties.getStats();
+            long dbSize = keyScanner.dbSize();
+            List<String> sample = dbSize > 0 ? keyScanner.sample(stats.getSampleSize()) : List.of();
+
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (String pattern : stats.getPatterns()) {
+                Pattern glob = RedisKeyScanner.compileGlob(pattern);
+                long matches = sample.stream().filter(key -> glob.matcher(key).matches()).count();
+                counts.put(pattern, sample.isEmpty() ? 0L : Math.round((double) matches / sample.size() * dbSize));
+            }
+
+            return new KeyEstimate(Collections.unmodifiableMap(counts), sample.size(), now,
+                    now + stats.getRefreshInterval().toMillis());
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    /**
+     * Delete keys matching a pattern with SCAN + batched UNLINK, then drop the L1 tier on every node
+     * so no node keeps serving the removed values.
+     *
+     * @return number of keys removed, or -1 on failure
+     */
+    public long clearCache(String pattern) {
+        try {
+            long removed = keyScanner.unlink(pattern);
+            keyEstimate = null;
+            if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+                twoLevelCacheManager.clearLocalTiers();
+            }
+            log.info("Cleared {} keys matching pattern: {}", removed, pattern);
+            return removed;
         } catch (Exception e) {
             log.error("Failed to clear cache for pattern: {}", pattern, e);
-            return false;
+            return -1;
         }
     }
 
+    /**
+     * Clear every cache through the cache manager, so both tiers are cleared and the invalidation is
+     * broadcast. Only cache entries are removed; other Redis data (locks, rate limits, token blacklist) is kept.
+     */
     public boolean clearAllCache() {
         try {
-            RedisConnection connection = redisConnectionFactory.getConnection();
-            try {
-                connection.flushDb();
-                log.info("Cleared all cache");
-                return true;
-            } finally {
-                connection.close();
+            int cleared;
+            if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+                cleared = twoLevelCacheManager.clearAll();
+            } else {
+                cleared = 0;
+                for (String name : cacheManager.getCacheNames()) {
+                    Cache cache = cacheManager.getCache(name);
+                    if (cache != null) {
+                        cache.clear();
+                        cleared++;
+                    }
+                }
             }
+            keyEstimate = null;
+            log.info("Cleared all {} caches", cleared);
+            return true;
         } catch (Exception e) {
             log.error("Failed to clear all cache", e);
             return false;
@@ -137,4 +199,7 @@ public class CacheMetricsService {
 
         return health;
     }
+
+    private record KeyEstimate(Map<String, Long> counts, int sampleSize, long sampledAt, long expiresAt) {
+    }
 }
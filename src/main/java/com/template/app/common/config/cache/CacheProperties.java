@@ -0,0 +1,179 @@
+package com.template.app.common.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Two-level cache settings under {@code app.cache}.
+ * Named caches inherit {@code local} and {@code redis} unless overridden under {@code caches.<name>}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+    private LocalConfig local = new LocalConfig();
+    private RedisDefaults redis = new RedisDefaults();
+    private LoadConfig load = new LoadConfig();
+    private ScanConfig scan = new ScanConfig();
+    private StatsConfig stats = new StatsConfig();
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    public enum Serializer {
+        /** JSON with embedded {@code @class} metadata; works for any value type */
+        JSON_TYPED,
+        /** Plain JSON bound to {@code value-type} */
+        JSON,
+        /** Binary JSON (Smile) bound to {@code value-type} */
+        SMILE,
+        /** CBOR bound to {@code value-type} */
+        CBOR,
+        /** Java serialization; values must be {@link java.io.Serializable} */
+        JDK
+    }
+
+    public enum Compression {
+        NONE,
+        LZ4
+    }
+
+    @Getter
+    @Setter
+    public static class LocalConfig {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class RedisDefaults {
+        private Duration ttl = Duration.ofDays(7);
+        /** Fraction of the TTL (0-1) randomly taken off each entry so keys written together do not expire together */
+        private double ttlJitter = 0.0;
+        /** Full key prefix; defaults to {@code <cache>::} */
+        private String keyPrefix;
+        private Serializer serializer = Serializer.JSON_TYPED;
+        private Compression compression = Compression.NONE;
+        /** Values smaller than this are stored uncompressed */
+        private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+    }
+
+    /**
+     * Stampede protection for loads through {@code Cache.get(key, valueLoader)} ({@code @Cacheable(sync = true)}).
+     */
+    @Getter
+    @Setter
+    public static class LoadConfig {
+        /** Redis lease that lets one node recompute a missing key while the others wait */
+        private Duration leaseTime = Duration.ofSeconds(10);
+        /** How long a node waits for another node's load before loading itself */
+        private Duration leaseWait = Duration.ofSeconds(3);
+        /** Serve an expired value for this long while one caller refreshes it in the background; 0 disables */
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        /** XFetch beta for probabilistic refresh ahead of expiry (1.0 is typical); 0 disables */
+        private double earlyRefreshBeta = 0.0;
+    }
+
+    @Getter
+    @Setter
+    public static class ScanConfig {
+        /** SCAN COUNT hint and UNLINK batch size */
+        private int count = 500;
+        /** Upper bound on keys visited per second by a single walk; 0 disables throttling */
+        private long maxKeysPerSecond = 20_000;
+    }
+
+    @Getter
+    @Setter
+    public static class StatsConfig {
+        /** Random keys drawn per estimate of the key counts by pattern */
+        private int sampleSize = 500;
+        /** How long an estimate is reused before sampling again */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        private List<String> patterns = new ArrayList<>(List.of("rate_limit:*", "session:*", "cache:*", "verification:*"));
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private Long localMaximumSize;
+        private Duration localTtl;
+        private Duration ttl;
+        private Double ttlJitter;
+        private String keyPrefix;
+        private Serializer serializer;
+        private Class<?> valueType;
+        private Compression compression;
+        private DataSize compressionThreshold;
+        private Duration staleWhileRevalidate;
+        private Double earlyRefreshBeta;
+    }
+
+    public long localMaximumSize(String cacheName) {
+        return resolve(cacheName, CacheSpec::getLocalMaximumSize, local.getMaximumSize());
+    }
+
+    public Duration localTtl(String cacheName) {
+        return resolve(cacheName, CacheSpec::getLocalTtl, local.getTtl());
+    }
+
+    public Duration ttl(String cacheName) {
+        return resolve(cacheName, CacheSpec::getTtl, redis.getTtl());
+    }
+
+    public double ttlJitter(String cacheName) {
+        return resolve(cacheName, CacheSpec::getTtlJitter, redis.getTtlJitter());
+    }
+
+    public String keyPrefix(String cacheName) {
+        return resolve(cacheName, CacheSpec::getKeyPrefix, redis.getKeyPrefix());
+    }
+
+    public Serializer serializer(String cacheName) {
+        return resolve(cacheName, CacheSpec::getSerializer, redis.getSerializer());
+    }
+
+    public Class<?> valueType(String cacheName) {
+        return resolve(cacheName, CacheSpec::getValueType, null);
+    }
+
+    public Compression compression(String cacheName) {
+        return resolve(cacheName, CacheSpec::getCompression, redis.getCompression());
+    }
+
+    public DataSize compressionThreshold(String cacheName) {
+        return resolve(cacheName, CacheSpec::getCompressionThreshold, redis.getCompressionThreshold());
+    }
+
+    public Duration staleWhileRevalidate(String cacheName) {
+        return resolve(cacheName, CacheSpec::getStaleWhileRevalidate, load.getStaleWhileRevalidate());
+    }
+
+    public double earlyRefreshBeta(String cacheName) {
+        return resolve(cacheName, CacheSpec::getEarlyRefreshBeta, load.getEarlyRefreshBeta());
+    }
+
+    /**
+     * Entries carry their freshness deadline only when a cache serves stale or refreshes early.
+     */
+    public boolean tracksFreshness(String cacheName) {
+        return staleWhileRevalidate(cacheName).compareTo(Duration.ZERO) > 0 || earlyRefreshBeta(cacheName) > 0;
+    }
+
+    private <T> T resolve(String cacheName, Function<CacheSpec, T> getter, T fallback) {
+        CacheSpec spec = caches.get(cacheName);
+        T value = spec != null ? getter.apply(spec) : null;
+        return value != null ? value : fallback;
+    }
+}
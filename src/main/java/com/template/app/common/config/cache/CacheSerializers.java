@@ -0,0 +1,61 @@
+package com.template.app.common.config.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Builds the Redis value serializer for a named cache from {@link CacheProperties}.
+ */
+final class CacheSerializers {
+
+    private CacheSerializers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static RedisSerializer<Object> valueSerializer(String cacheName, CacheProperties properties) {
+        CacheProperties.Serializer format = properties.serializer(cacheName);
+
+        RedisSerializer<?> serializer = switch (format) {
+            case JSON_TYPED -> new GenericJackson2JsonRedisSerializer();
+            case JSON -> typed(cacheName, properties, new JsonFactory());
+            case SMILE -> typed(cacheName, properties, new SmileFactory());
+            case CBOR -> typed(cacheName, properties, new CBORFactory());
+            case JDK -> new JdkSerializationRedisSerializer(CacheSerializers.class.getClassLoader());
+        };
+
+        RedisSerializer<Object> values = (RedisSerializer<Object>) serializer;
+        if (properties.compression(cacheName) == CacheProperties.Compression.LZ4) {
+            values = new Lz4RedisSerializer(values, (int) properties.compressionThreshold(cacheName).toBytes());
+        }
+        if (properties.tracksFreshness(cacheName)) {
+            values = new CacheEntryRedisSerializer(values);
+        }
+        return values;
+    }
+
+    /**
+     * Formats without type metadata need the value class up front.
+     */
+    private static RedisSerializer<?> typed(String cacheName, CacheProperties properties, JsonFactory factory) {
+        Class<?> valueType = properties.valueType(cacheName);
+        if (valueType == null) {
+            String owner = cacheName != null ? "app.cache.caches." + cacheName : "app.cache.redis";
+            throw new IllegalStateException(owner + " uses the " + properties.serializer(cacheName)
+                    + " serializer, which requires app.cache.caches.<name>.value-type");
+        }
+
+        ObjectMapper mapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return new Jackson2JsonRedisSerializer<>(mapper, valueType);
+    }
+}
@@ -0,0 +1,99 @@
+package com.template.app.common.config.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the Redis round trip and serialized value size of every cache read and write,
+ * per cache name. This is the only layer that sees both the cache name and the raw bytes.
+ */
+class InstrumentedRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final MeterRegistry registry;
+    private final Map<String, Meters> metersByCache = new ConcurrentHashMap<>();
+
+    InstrumentedRedisCacheWriter(RedisCacheWriter delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        Meters meters = meters(name);
+        long startedAt = System.nanoTime();
+        delegate.put(name, key, value, ttl);
+        meters.put().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        meters.written().record(value.length);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        Meters meters = meters(name);
+        long startedAt = System.nanoTime();
+        byte[] value = delegate.get(name, key);
+        meters.get().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (value != null) {
+            meters.read().record(value.length);
+        }
+        return value;
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        Meters meters = meters(name);
+        long startedAt = System.nanoTime();
+        byte[] existing = delegate.putIfAbsent(name, key, value, ttl);
+        meters.put().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (existing == null) {
+            meters.written().record(value.length);
+        }
+        return existing;
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new InstrumentedRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), registry);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    private Meters meters(String name) {
+        return metersByCache.computeIfAbsent(name, cacheName -> new Meters(
+                CacheMeters.l2Latency(registry, cacheName, "get"),
+                CacheMeters.l2Latency(registry, cacheName, "put"),
+                CacheMeters.payloadSize(registry, cacheName, "read"),
+                CacheMeters.payloadSize(registry, cacheName, "write")));
+    }
+
+    private record Meters(Timer get, Timer put, DistributionSummary read, DistributionSummary written) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.template.app.common.config.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Takes a random fraction, up to the cache's {@code ttl-jitter}, off each entry's TTL so that
+ * entries written together (e.g. after a deploy or a warm-up) do not all expire together.
+ * The configured TTL stays the upper bound.
+ */
+class JitteredRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final ToDoubleFunction<String> jitterByCache;
+
+    JitteredRedisCacheWriter(RedisCacheWriter delegate, ToDoubleFunction<String> jitterByCache) {
+        this.delegate = delegate;
+        this.jitterByCache = jitterByCache;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        delegate.put(name, key, value, jitter(name, ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        return delegate.putIfAbsent(name, key, value, jitter(name, ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new JitteredRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), jitterByCache);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    private Duration jitter(String name, @Nullable Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return ttl;
+        }
+
+        double jitter = Math.min(Math.max(jitterByCache.applyAsDouble(name), 0.0), 1.0);
+        if (jitter == 0.0) {
+            return ttl;
+        }
+
+        long millis = ttl.toMillis();
+        long reduction = (long) (millis * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.max(millis - reduction, 1));
+    }
+}
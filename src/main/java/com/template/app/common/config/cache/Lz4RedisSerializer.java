@@ -0,0 +1,119 @@
+package com.template.app.common.config.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+
+/**
+ * LZ4-compresses values produced by another serializer once they reach a size threshold.
+ * <p>
+ * Stored layout is a one-byte header followed by the payload: {@code 0x1C} for raw bytes, or
+ * {@code 0x1D} plus the 4-byte original length for compressed bytes. Values written before
+ * compression was enabled carry no header and are passed to the delegate unchanged; both header
+ * bytes are control characters that cannot start a JSON, Smile, CBOR or JDK-serialized value.
+ * Compressed values are untrusted input: the stored length is checked against what LZ4 can
+ * produce from the payload before anything is allocated.
+ */
+class Lz4RedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte RAW = 0x1C;
+    private static final byte LZ4 = 0x1D;
+    private static final int LZ4_HEADER_LENGTH = 5;
+
+    /**
+     * Upper bound on the LZ4 block compression ratio.
+     */
+    private static final int MAX_RATIO = 255;
+
+    private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+    private final LZ4Compressor compressor = FACTORY.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = FACTORY.safeDecompressor();
+
+    Lz4RedisSerializer(RedisSerializer<Object> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null) {
+            return null;
+        }
+
+        if (bytes.length >= threshold) {
+            byte[] compressed = new byte[LZ4_HEADER_LENGTH + compressor.maxCompressedLength(bytes.length)];
+            int length = compressor.compress(bytes, 0, bytes.length, compressed, LZ4_HEADER_LENGTH);
+            if (LZ4_HEADER_LENGTH + length < bytes.length) {
+                compressed[0] = LZ4;
+                writeInt(compressed, 1, bytes.length);
+                return Arrays.copyOf(compressed, LZ4_HEADER_LENGTH + length);
+            }
+        }
+
+        byte[] raw = new byte[bytes.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(bytes, 0, raw, 1, bytes.length);
+        return raw;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return delegate.deserialize(bytes);
+        }
+
+        return switch (bytes[0]) {
+            case RAW -> delegate.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case LZ4 -> delegate.deserialize(decompress(bytes));
+            default -> delegate.deserialize(bytes);
+        };
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length <= LZ4_HEADER_LENGTH) {
+            throw new SerializationException("Truncated LZ4 cache value");
+        }
+
+        int compressedLength = bytes.length - LZ4_HEADER_LENGTH;
+        int length = readInt(bytes, 1);
+        if (length <= compressedLength || length > (long) compressedLength * MAX_RATIO) {
+            throw new SerializationException("Invalid LZ4 cache value length " + length
+                    + " for " + compressedLength + " compressed bytes");
+        }
+
+        byte[] restored = new byte[length];
+        int restoredLength;
+        try {
+            restoredLength = decompressor.decompress(bytes, LZ4_HEADER_LENGTH, compressedLength, restored, 0, length);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decompress cache value", e);
+        }
+        if (restoredLength != length) {
+            throw new SerializationException("LZ4 cache value decompressed to " + restoredLength
+                    + " bytes, expected " + length);
+        }
+        return restored;
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return ((source[offset] & 0xFF) << 24)
+                | ((source[offset + 1] & 0xFF) << 16)
+                | ((source[offset + 2] & 0xFF) << 8)
+                | (source[offset + 3] & 0xFF);
+    }
+}
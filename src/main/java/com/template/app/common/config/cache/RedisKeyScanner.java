@@ -0,0 +1,157 @@
+package com.template.app.common.config.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental keyspace walks that never block Redis.
+ * <p>
+ * Uses cursor-based {@code SCAN} with a configurable {@code COUNT} hint instead of {@code KEYS},
+ * deletes with {@code UNLINK} (memory is reclaimed off the main thread) and caps throughput so a
+ * large walk cannot crowd out rate limiting or blacklist lookups.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisKeyScanner {
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheProperties cacheProperties;
+
+    /**
+     * Hand matching keys to {@code batchConsumer} in batches of at most the configured count hint.
+     *
+     * @return number of keys visited
+     */
+    public long scan(String pattern, Consumer<List<String>> batchConsumer) {
+        CacheProperties.ScanConfig config = cacheProperties.getScan();
+        int batchSize = config.getCount();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        Throttle throttle = new Throttle(config.getMaxKeysPerSecond());
+
+        long visited = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize) {
+                    batchConsumer.accept(batch);
+                    visited += batch.size();
+                    throttle.acquired(visited);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+            visited += batch.size();
+        }
+        return visited;
+    }
+
+    /**
+     * Delete every key matching {@code pattern} with batched {@code UNLINK}.
+     *
+     * @return number of keys removed
+     */
+    public long unlink(String pattern) {
+        long[] removed = {0};
+        scan(pattern, batch -> {
+            Long count = redisTemplate.unlink(batch);
+            removed[0] += count != null ? count : 0;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Draw {@code sampleSize} random keys with pipelined {@code RANDOMKEY} (O(1) each).
+     */
+    public List<String> sample(int sampleSize) {
+        List<Object> keys = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < sampleSize; i++) {
+                connection.keyCommands().randomKey();
+            }
+            return null;
+        });
+
+        List<String> sample = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            if (key != null) {
+                sample.add(key.toString());
+            }
+        }
+        return sample;
+    }
+
+    public long dbSize() {
+        Long size = redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        return size != null ? size : 0L;
+    }
+
+    /**
+     * Compile a Redis glob ({@code *}, {@code ?}, {@code [...]}, {@code \}) for client-side matching.
+     */
+    public static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+                regex.append(c);
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '[') {
+                inClass = true;
+                regex.append('[');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Sleeps between batches so the walk stays under the configured keys per second.
+     */
+    private static class Throttle {
+        private final long maxKeysPerSecond;
+        private final long startedAt = System.nanoTime();
+
+        Throttle(long maxKeysPerSecond) {
+            this.maxKeysPerSecond = maxKeysPerSecond;
+        }
+
+        void acquired(long total) {
+            if (maxKeysPerSecond <= 0) {
+                return;
+            }
+
+            long dueNanos = TimeUnit.SECONDS.toNanos(total) / maxKeysPerSecond;
+            long aheadNanos = dueNanos - (System.nanoTime() - startedAt);
+            if (aheadNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(aheadNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while scanning Redis keys", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.template.app.common.config.cache;
+
+import com.template.app.scheduler.service.DistributedLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache with an in-process Caffeine tier (L1) in front of a Redis cache (L2).
+ * <p>
+ * Reads are served from L1 when possible and fill L1 from L2 on a miss. Writes and evictions go to
+ * both tiers and are broadcast so other nodes drop their L1 copy. L1 entries are kept short-lived
+ * to bound staleness if an invalidation message is missed. Values in L1 are shared object
+ * references and must not be mutated by callers.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} are stampede-protected: concurrent misses for a key
+ * share one load per node, and a short Redis lease lets one node recompute while the others wait
+ * for its result. When the cache tracks freshness, an expired value is served for the
+ * stale-while-revalidate window while one caller refreshes it in the background, and fresh values
+ * may be refreshed early (XFetch). Background refreshes run the caller's loader on another thread
+ * with the caller's SecurityContext and MDC, but outside its transaction.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final long LEASE_POLL_MILLIS = 50;
+
+    /**
+     * Marks a cached entry that is too old to serve.
+     */
+    private static final Object MISS = new Object();
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final LoadPolicy loadPolicy;
+    private final DistributedLockService lockService;
+    private final Executor refreshExecutor;
+    private final CacheMeters meters;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         LoadPolicy loadPolicy,
+                         DistributedLockService lockService,
+                         Executor refreshExecutor,
+                         CacheMeters meters) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.loadPolicy = loadPolicy;
+        this.lockService = lockService;
+        this.refreshExecutor = refreshExecutor;
+        this.meters = meters;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    /**
+     * Plain lookups only return fresh values; there is no loader to revalidate with.
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        long startedAt = System.nanoTime();
+        try {
+            String localKey = localKey(key);
+            Object cached = local.getIfPresent(localKey);
+            if (cached != null) {
+                meters.l1Hit();
+            } else {
+                meters.l1Miss();
+                cached = readRemoteRecorded(key, localKey);
+            }
+
+            if (cached instanceof CacheEntry entry) {
+                return entry.isFresh(System.currentTimeMillis()) ? new SimpleValueWrapper(entry.value()) : null;
+            }
+            return cached != null ? new SimpleValueWrapper(cached) : null;
+        } finally {
+            meters.recordGet(startedAt);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long startedAt = System.nanoTime();
+        try {
+            String localKey = localKey(key);
+            Object cached = local.getIfPresent(localKey);
+            if (cached != null) {
+                Object served = serve(key, localKey, cached, valueLoader);
+                if (served != MISS) {
+                    meters.l1Hit();
+                    return (T) served;
+                }
+            }
+
+            meters.l1Miss();
+            return (T) singleFlight(localKey, () -> fetch(key, localKey, valueLoader));
+        } finally {
+            meters.recordGet(startedAt);
+        }
+    }
+
+    /**
+     * Runs on one thread per key; the other callers for that key wait for its result.
+     */
+    private Object fetch(Object key, String localKey, Callable<?> valueLoader) {
+        Object cached = readRemoteRecorded(key, localKey);
+        Object served = cached != null ? serve(key, localKey, cached, valueLoader) : MISS;
+        if (served != MISS) {
+            return served;
+        }
+
+        String lease = leaseKey(localKey);
+        if (lockService.tryLock(lease, loadPolicy.leaseTime())) {
+            try {
+                // The previous holder may have finished between our read and the lease
+                served = serveRemote(key, localKey, valueLoader);
+                return served != MISS ? served : load(key, localKey, valueLoader);
+            } finally {
+                lockService.unlock(lease);
+            }
+        }
+
+        // Another node is loading this key; wait for its result to land in Redis
+        long deadline = System.currentTimeMillis() + loadPolicy.leaseWait().toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            served = serveRemote(key, localKey, valueLoader);
+            if (served != MISS) {
+                return served;
+            }
+        }
+
+        log.debug("Lease wait for {}::{} timed out, loading locally", name, localKey);
+        return load(key, localKey, valueLoader);
+    }
+
+    private Object serveRemote(Object key, String localKey, Callable<?> valueLoader) {
+        Object cached = readRemote(key, localKey);
+        return cached != null ? serve(key, localKey, cached, valueLoader) : MISS;
+    }
+
+    /**
+     * The value to return for a cached entry, scheduling a refresh when it is stale or due early;
+     * {@link #MISS} when it is past the stale window.
+     */
+    private Object serve(Object key, String localKey, Object cached, Callable<?> valueLoader) {
+        if (!(cached instanceof CacheEntry entry)) {
+            return cached;
+        }
+
+        long now = System.currentTimeMillis();
+        if (entry.isFresh(now)) {
+            if (entry.shouldRefreshEarly(now, loadPolicy.earlyRefreshBeta())) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return entry.value();
+        }
+        if (now < entry.freshUntil() + loadPolicy.staleMillis()) {
+            refreshAsync(key, localKey, valueLoader);
+            return entry.value();
+        }
+        return MISS;
+    }
+
+    private void refreshAsync(Object key, String localKey, Callable<?> valueLoader) {
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Runnable refresh = () -> {
+            String lease = leaseKey(localKey);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                // Without the lease another node is already refreshing; its write evicts our copy
+                if (lockService.tryLock(lease, loadPolicy.leaseTime())) {
+                    try {
+                        load(key, localKey, valueLoader);
+                    } finally {
+                        lockService.unlock(lease);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Background refresh of {}::{} failed: {}", name, localKey, e.getMessage());
+            } finally {
+                refreshing.remove(localKey);
+                MDC.clear();
+            }
+        };
+
+        try {
+            refreshExecutor.execute(DelegatingSecurityContextRunnable.create(refresh, null));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    /**
+     * Call the loader and store its result in both tiers.
+     */
+    private Object load(Object key, String localKey, Callable<?> valueLoader) {
+        long startedAt = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            meters.recordLoad(startedAt, false);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        meters.recordLoad(startedAt, true);
+        if (value == null) {
+            return null;
+        }
+
+        long computeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        Object stored = stamp(value, computeMillis);
+        remote.put(key, stored);
+        local.put(localKey, stored);
+        invalidationPublisher.publishEvict(name, localKey);
+        return value;
+    }
+
+    private Object singleFlight(String localKey, Callable<Object> task) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            Object value = task.call();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw new IllegalStateException(e);
+        } finally {
+            inFlight.remove(localKey, future);
+        }
+    }
+
+    private Object readRemoteRecorded(Object key, String localKey) {
+        Object value = readRemote(key, localKey);
+        if (value != null) {
+            meters.l2Hit();
+        } else {
+            meters.l2Miss();
+        }
+        return value;
+    }
+
+    private Object readRemote(Object key, String localKey) {
+        ValueWrapper wrapper = remote.get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        return value;
+    }
+
+    private Object stamp(Object value, long computeMillis) {
+        if (!loadPolicy.tracksFreshness()) {
+            return value;
+        }
+        return new CacheEntry(value, System.currentTimeMillis() + loadPolicy.ttlMillis(),
+                (int) Math.min(computeMillis, Integer.MAX_VALUE));
+    }
+
+    private String leaseKey(String localKey) {
+        return "cache-load:" + name + ":" + localKey;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long startedAt = System.nanoTime();
+        Object stored = value != null ? stamp(value, 0) : null;
+        remote.put(key, stored);
+        putLocal(key, stored);
+        invalidationPublisher.publishEvict(name, localKey(key));
+        meters.recordPut(startedAt);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        long startedAt = System.nanoTime();
+        Object stored = value != null ? stamp(value, 0) : null;
+        ValueWrapper existing = remote.putIfAbsent(key, stored);
+        putLocal(key, existing != null ? existing.get() : stored);
+        meters.recordPut(startedAt);
+        if (existing != null && existing.get() instanceof CacheEntry entry) {
+            return new SimpleValueWrapper(entry.value());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        meters.evicted();
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        meters.evicted();
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.publishEvict(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return hadEntries;
+    }
+
+    Map<String, Object> statistics() {
+        return meters.summary();
+    }
+
+    /**
+     * Drop an L1 entry on request from another node.
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private void putLocal(Object key, Object value) {
+        if (value != null) {
+            local.put(localKey(key), value);
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    /**
+     * L1 is keyed by the string form of the key, which is also what travels in invalidation messages.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Load settings resolved for one cache.
+     *
+     * @param tracksFreshness  whether values are stored as {@link CacheEntry}
+     * @param ttlMillis        how long a loaded value is fresh
+     * @param staleMillis      how long past that it may still be served while refreshing
+     * @param earlyRefreshBeta XFetch beta; 0 disables early refresh
+     */
+    public record LoadPolicy(boolean tracksFreshness,
+                             long ttlMillis,
+                             long staleMillis,
+                             double earlyRefreshBeta,
+                             Duration leaseTime,
+                             Duration leaseWait) {
+    }
+}
@@ -0,0 +1,228 @@
+package com.template.app.common.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.template.app.scheduler.service.DistributedLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache manager that puts a Caffeine L1 in front of each Redis cache.
+ * <p>
+ * L1 invalidations are exchanged over the {@code cache-invalidation} pub/sub channel as
+ * {@code <node>\n<cache>\n<key>} (no key for a clear, {@code *} as cache for every L1); a node ignores
+ * its own messages.
+ * Transaction awareness is applied on top of the two-level cache, so puts and evictions
+ * inside a transaction reach both tiers, and other nodes, only after commit.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager
+        implements CacheInvalidationPublisher, MessageListener, DisposableBean {
+
+    static final String CHANNEL = "cache-invalidation";
+    static final String ALL_CACHES = "*";
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final DistributedLockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Background refreshes for stale-while-revalidate and early refresh; refreshes beyond the
+     * queue are dropped and the stale value keeps being served until the next attempt.
+     */
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1_000), refreshThreadFactory());
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                CacheProperties properties,
+                                StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                DistributedLockService lockService,
+                                MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+
+        // With L1 disabled entries expire on write; the cache still coalesces loads
+        boolean localEnabled = properties.getLocal().isEnabled();
+        CacheMeters meters = new CacheMeters(meterRegistry, name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(localEnabled ? properties.localMaximumSize(name) : 0)
+                .expireAfterWrite(localEnabled ? properties.localTtl(name) : Duration.ZERO);
+        if (localEnabled) {
+            builder.evictionListener((key, value, cause) -> meters.l1Evicted(cause));
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = builder.build();
+        meters.bindLocal(local);
+
+        return new TwoLevelCache(name, local, remote, this, loadPolicy(name), lockService, refreshExecutor, meters);
+    }
+
+    private TwoLevelCache.LoadPolicy loadPolicy(String name) {
+        CacheProperties.LoadConfig load = properties.getLoad();
+        return new TwoLevelCache.LoadPolicy(
+                properties.tracksFreshness(name),
+                properties.ttl(name).toMillis(),
+                properties.staleWhileRevalidate(name).toMillis(),
+                properties.earlyRefreshBeta(name),
+                load.getLeaseTime(),
+                load.getLeaseWait());
+    }
+
+    private static ThreadFactory refreshThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Hit ratios, latencies and payload sizes for every cache created so far.
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> statistics = new TreeMap<>();
+        for (String cacheName : getCacheNames()) {
+            Cache cache = lookupCache(cacheName);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                statistics.put(cacheName, twoLevelCache.statistics());
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Clear every cache, configured or created so far, in both tiers and on every node.
+     * Redis entries are removed with SCAN + DEL, never KEYS or FLUSHDB.
+     *
+     * @return the number of caches cleared
+     */
+    public int clearAll() {
+        Set<String> names = new TreeSet<>(properties.getCaches().keySet());
+        names.addAll(getCacheNames());
+
+        for (String name : names) {
+            Cache cache = getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        return names.size();
+    }
+
+    /**
+     * Drop the L1 of every cache on every node, after Redis entries were removed behind the caches' back.
+     */
+    public void clearLocalTiers() {
+        clearLocalCaches();
+        publish(nodeId + "\n" + ALL_CACHES);
+    }
+
+    private void clearLocalCaches() {
+        for (String cacheName : getCacheNames()) {
+            Cache cache = lookupCache(cacheName);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.clearLocal();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void publishEvict(String cacheName, String key) {
+        publish(nodeId + "\n" + cacheName + "\n" + key);
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(nodeId + "\n" + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        if (parts.length == 2 && ALL_CACHES.equals(parts[1])) {
+            clearLocalCaches();
+            return;
+        }
+
+        // Only caches already created on this node can hold L1 entries
+        Cache cache = lookupCache(parts[1]);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            if (parts.length == 3) {
+                twoLevelCache.evictLocal(parts[2]);
+            } else {
+                twoLevelCache.clearLocal();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.template.app.common.config.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds the Hikari pools behind the application {@link DataSource}, whether it is a single pool
+ * or the lazy read/write routing set up by {@link DatabaseConfig}.
+ */
+final class ConnectionPools {
+
+    private ConnectionPools() {
+    }
+
+    /**
+     * Pools keyed by pool name, primary first.
+     */
+    static Map<String, HikariDataSource> of(DataSource dataSource) {
+        DataSource target = unwrap(dataSource);
+        if (target instanceof ReadWriteRoutingDataSource routing) {
+            return routing.getPools();
+        }
+        if (target instanceof HikariDataSource hikariDataSource) {
+            return Map.of(hikariDataSource.getPoolName(), hikariDataSource);
+        }
+        return Map.of();
+    }
+
+    static Optional<HikariDataSource> primary(DataSource dataSource) {
+        return of(dataSource).values().stream().findFirst();
+    }
+
+    static Optional<ReadWriteRoutingDataSource> routing(DataSource dataSource) {
+        return unwrap(dataSource) instanceof ReadWriteRoutingDataSource routing ? Optional.of(routing) : Optional.empty();
+    }
+
+    private static DataSource unwrap(DataSource dataSource) {
+        DataSource current = dataSource;
+        while (current instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            current = delegating.getTargetDataSource();
+        }
+        return current;
+    }
+}
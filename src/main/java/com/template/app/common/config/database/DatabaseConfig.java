@@ -2,12 +2,19 @@ package com.template.app.common.config.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 
@@ -16,6 +23,9 @@ import javax.sql.DataSource;
 @Profile("!test")
 public class DatabaseConfig {
 
+    static final String HIKARI_METRIC_PREFIX = "hikaricp.connections";
+    private static final String POOL_NAME = "CogmoHikariPool";
+
     @Value("${spring.datasource.url}")
     private String jdbcUrl;
 
@@ -34,17 +44,55 @@ public class DatabaseConfig {
     @Value("${spring.datasource.hikari.connection-timeout:30000}")
     private long connectionTimeout;
 
+    @Value("${spring.datasource.replica.url:}")
+    private String replicaJdbcUrl;
+
+    @Value("${spring.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${spring.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${spring.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${spring.datasource.replica.minimum-idle:${spring.datasource.hikari.minimum-idle:5}}")
+    private int replicaMinimumIdle;
+
+    /**
+     * Primary pool, or read/write routing across primary and replica pools when
+     * {@code spring.datasource.replica.url} is set
+     */
     @Bean
-    public DataSource dataSource() {
+    public DataSource dataSource(MeterRegistry meterRegistry) {
+        HikariDataSource primary = createPool(POOL_NAME, jdbcUrl, username, password,
+                maximumPoolSize, minimumIdle, false, meterRegistry);
+        if (!StringUtils.hasText(replicaJdbcUrl)) {
+            return primary;
+        }
+
+        HikariDataSource replica = createPool(POOL_NAME + "-replica", replicaJdbcUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize, replicaMinimumIdle, true, meterRegistry);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, meterRegistry);
+        routing.afterPropertiesSet();
+
+        // Defer the physical connection until the read-only flag of the transaction is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource createPool(String poolName, String url, String user, String pass,
+                                        int maxPoolSize, int minIdle, boolean readOnly,
+                                        MeterRegistry meterRegistry) {
         HikariConfig config = new HikariConfig();
 
-        config.setJdbcUrl(jdbcUrl);
-        config.setUsername(username);
-        config.setPassword(password);
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(pass);
 
         // Pool sizing
-        config.setMaximumPoolSize(maximumPoolSize);
-        config.setMinimumIdle(minimumIdle);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setMinimumIdle(minIdle);
 
         // Connection settings
         config.setConnectionTimeout(connectionTimeout);
@@ -54,20 +102,44 @@ public class DatabaseConfig {
 
         // Pool behavior
         config.setAutoCommit(true);
+        config.setReadOnly(readOnly);
         config.setConnectionTestQuery("SELECT 1");
 
+        // Let the PostgreSQL driver collapse batched INSERTs into multi-row statements
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+
         // Performance optimizations
         config.setLeakDetectionThreshold(60000); // 60 seconds
         config.setRegisterMbeans(false); // Disable to avoid conflict with Spring's MBeanExporter
 
         // Pool name for monitoring
-        config.setPoolName("CogmoHikariPool");
+        config.setPoolName(poolName);
 
-        // Metrics tracking
-        config.setMetricRegistry(null); // Can integrate with Micrometer if needed
+        // Metrics tracking: hikaricp.connections.* acquire/usage/creation timers and pool gauges, tagged by pool
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
 
-        log.info("Initializing HikariCP with pool size: {}-{}", minimumIdle, maximumPoolSize);
+        log.info("Initializing HikariCP {} with pool size: {}-{}", poolName, minIdle, maxPoolSize);
 
         return new HikariDataSource(config);
     }
+
+    /**
+     * Percentiles and histograms for Hikari's connection timers, so acquire-latency tails are visible
+     */
+    @Bean
+    public MeterFilter hikariTimerDistribution() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() == Meter.Type.TIMER && id.getName().startsWith(HIKARI_METRIC_PREFIX)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
 }
@@ -2,13 +2,19 @@ package com.template.app.common.config.database;
 
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -16,34 +22,45 @@ import java.util.Map;
 public class DatabaseMetricsService {
 
     private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final PoolSizingAdvisor poolSizingAdvisor;
+    private final ReplicaLagMonitor replicaLagMonitor;
 
+    /**
+     * Metrics of the primary pool.
+     */
     public Map<String, Object> getPoolMetrics() {
+        Optional<HikariDataSource> primary = ConnectionPools.primary(dataSource);
+        if (primary.isEmpty()) {
+            log.warn("DataSource is not HikariDataSource, unable to retrieve metrics");
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("error", "Not a HikariDataSource");
+            return metrics;
+        }
+        return getPoolMetrics(primary.get());
+    }
+
+    private Map<String, Object> getPoolMetrics(HikariDataSource hikariDataSource) {
         Map<String, Object> metrics = new HashMap<>();
+        HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
+
+        if (poolMXBean != null) {
+            metrics.put("activeConnections", poolMXBean.getActiveConnections());
+            metrics.put("idleConnections", poolMXBean.getIdleConnections());
+            metrics.put("totalConnections", poolMXBean.getTotalConnections());
+            metrics.put("threadsAwaitingConnection", poolMXBean.getThreadsAwaitingConnection());
 
-        if (dataSource instanceof HikariDataSource hikariDataSource) {
-            HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
-
-            if (poolMXBean != null) {
-                metrics.put("activeConnections", poolMXBean.getActiveConnections());
-                metrics.put("idleConnections", poolMXBean.getIdleConnections());
-                metrics.put("totalConnections", poolMXBean.getTotalConnections());
-                metrics.put("threadsAwaitingConnection", poolMXBean.getThreadsAwaitingConnection());
-
-                // Calculate pool utilization percentage
-                int total = poolMXBean.getTotalConnections();
-                int active = poolMXBean.getActiveConnections();
-                double utilization = total > 0 ? (active * 100.0 / total) : 0;
-                metrics.put("poolUtilization", String.format("%.2f%%", utilization));
-
-                // Health status
-                metrics.put("healthy", poolMXBean.getThreadsAwaitingConnection() == 0);
-            } else {
-                log.warn("HikariPoolMXBean is null, unable to retrieve metrics");
-                metrics.put("error", "Metrics not available");
-            }
+            // Calculate pool utilization percentage
+            int total = poolMXBean.getTotalConnections();
+            int active = poolMXBean.getActiveConnections();
+            double utilization = total > 0 ? (active * 100.0 / total) : 0;
+            metrics.put("poolUtilization", String.format("%.2f%%", utilization));
+
+            // Health status
+            metrics.put("healthy", poolMXBean.getThreadsAwaitingConnection() == 0);
         } else {
-            log.warn("DataSource is not HikariDataSource, unable to retrieve metrics");
-            metrics.put("error", "Not a HikariDataSource");
+            log.warn("HikariPoolMXBean is null, unable to retrieve metrics");
+            metrics.put("error", "Metrics not available");
         }
 
         return metrics;
@@ -52,27 +69,70 @@ public class DatabaseMetricsService {
     public Map<String, Object> getDetailedMetrics() {
         Map<String, Object> metrics = getPoolMetrics();
 
-        if (dataSource instanceof HikariDataSource hikariDataSource) {
-            metrics.put("poolName", hikariDataSource.getPoolName());
-            metrics.put("maximumPoolSize", hikariDataSource.getMaximumPoolSize());
-            metrics.put("minimumIdle", hikariDataSource.getMinimumIdle());
-            metrics.put("connectionTimeout", hikariDataSource.getConnectionTimeout());
-            metrics.put("idleTimeout", hikariDataSource.getIdleTimeout());
-            metrics.put("maxLifetime", hikariDataSource.getMaxLifetime());
+        Map<String, HikariDataSource> pools = ConnectionPools.of(dataSource);
+        ConnectionPools.primary(dataSource).ifPresent(primary -> metrics.putAll(getPoolSettings(primary)));
+
+        // Replica pool and routing state when read/write routing is configured
+        if (pools.size() > 1) {
+            Map<String, Object> poolMetrics = new LinkedHashMap<>();
+            pools.forEach((poolName, pool) -> {
+                Map<String, Object> detail = getPoolMetrics(pool);
+                detail.putAll(getPoolSettings(pool));
+                poolMetrics.put(poolName, detail);
+            });
+            metrics.put("pools", poolMetrics);
+        }
+        ConnectionPools.routing(dataSource).ifPresent(routing -> {
+            metrics.put("replicaAvailable", routing.isReplicaAvailable());
+            metrics.put("replicaLagSeconds", replicaLagMonitor.getLagSeconds());
+        });
+
+        Map<String, PoolSizingAdvisor.Recommendation> recommendations = poolSizingAdvisor.getRecommendations();
+        if (!recommendations.isEmpty()) {
+            metrics.put("poolSizing", recommendations);
         }
 
         return metrics;
     }
 
+    private Map<String, Object> getPoolSettings(HikariDataSource hikariDataSource) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("poolName", hikariDataSource.getPoolName());
+        settings.put("maximumPoolSize", hikariDataSource.getMaximumPoolSize());
+        settings.put("minimumIdle", hikariDataSource.getMinimumIdle());
+        settings.put("connectionTimeout", hikariDataSource.getConnectionTimeout());
+        settings.put("idleTimeout", hikariDataSource.getIdleTimeout());
+        settings.put("maxLifetime", hikariDataSource.getMaxLifetime());
+
+        // Connection timer tails from the Micrometer metrics tracker
+        settings.put("acquireLatencyMs", timerPercentiles("hikaricp.connections.acquire", hikariDataSource.getPoolName()));
+        settings.put("usageMs", timerPercentiles("hikaricp.connections.usage", hikariDataSource.getPoolName()));
+        settings.put("creationMs", timerPercentiles("hikaricp.connections.creation", hikariDataSource.getPoolName()));
+        return settings;
+    }
+
+    private Map<String, Object> timerPercentiles(String name, String poolName) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Timer timer = meterRegistry.find(name).tag("pool", poolName).timer();
+        if (timer == null) {
+            return values;
+        }
+
+        values.put("count", timer.count());
+        values.put("mean", timer.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            values.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        values.put("max", timer.max(TimeUnit.MILLISECONDS));
+        return values;
+    }
+
     public boolean isHealthy() {
-        if (dataSource instanceof HikariDataSource hikariDataSource) {
-            HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
-            if (poolMXBean != null) {
+        return ConnectionPools.primary(dataSource)
+                .map(HikariDataSource::getHikariPoolMXBean)
                 // Pool is healthy if there are no threads waiting and we have idle connections
-                return poolMXBean.getThreadsAwaitingConnection() == 0
-                        && poolMXBean.getIdleConnections() > 0;
-            }
-        }
-        return false;
+                .map(poolMXBean -> poolMXBean.getThreadsAwaitingConnection() == 0
+                        && poolMXBean.getIdleConnections() > 0)
+                .orElse(false);
     }
 }
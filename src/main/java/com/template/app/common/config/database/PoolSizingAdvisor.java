@@ -0,0 +1,218 @@
+package com.template.app.common.config.database;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches Hikari pool utilization and recommends a {@code maximumPoolSize} for each pool
+ * (primary and, when configured, replica).
+ * <p>
+ * Active and waiting connection counts are sampled on a fixed interval into a sliding window.
+ * On each evaluation the pool should hold the window's p95 of active connections at
+ * {@code target-utilization}, plus headroom for every sustained waiter. With
+ * {@code apply-enabled} the recommendation is applied through {@code HikariConfigMXBean}, clamped
+ * to {@code [min-pool-size, max-pool-size]} and by at most {@code max-step} connections at a time.
+ * Otherwise it is only logged and reported on {@code /api/v1/metrics/database}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PoolSizingAdvisor {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${database.pool-advisor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${database.pool-advisor.apply-enabled:false}")
+    private boolean applyEnabled;
+
+    @Value("${database.pool-advisor.window-samples:180}") // 15 minutes at the default sample interval
+    private int windowSamples;
+
+    @Value("${database.pool-advisor.target-utilization:0.7}")
+    private double targetUtilization;
+
+    @Value("${database.pool-advisor.min-pool-size:5}")
+    private int minPoolSize;
+
+    @Value("${database.pool-advisor.max-pool-size:50}")
+    private int maxPoolSize;
+
+    @Value("${database.pool-advisor.max-step:5}")
+    private int maxStep;
+
+    private final Map<String, PoolWindow> windows = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${database.pool-advisor.sample-interval:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+
+        ConnectionPools.of(dataSource).forEach((poolName, pool) -> {
+            HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                windows.computeIfAbsent(poolName, this::newWindow)
+                        .add(poolMXBean.getActiveConnections(), poolMXBean.getThreadsAwaitingConnection());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${database.pool-advisor.evaluation-interval:60000}",
+            initialDelayString = "${database.pool-advisor.evaluation-interval:60000}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+
+        ConnectionPools.of(dataSource).forEach((poolName, pool) -> {
+            PoolWindow window = windows.get(poolName);
+            if (window != null) {
+                evaluate(pool, window);
+            }
+        });
+    }
+
+    private void evaluate(HikariDataSource pool, PoolWindow window) {
+        int[][] samples = window.snapshot();
+        int[] active = samples[0];
+        int[] waiting = samples[1];
+
+        // Require a quarter of the window before advising
+        if (active.length < Math.max(1, windowSamples / 4)) {
+            return;
+        }
+
+        HikariConfigMXBean config = pool.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        int p95Active = percentile(active, 0.95);
+        int p95Waiting = percentile(waiting, 0.95);
+        int peakActive = Arrays.stream(active).max().orElse(0);
+
+        int needed = (int) Math.ceil((p95Active + p95Waiting) / targetUtilization);
+        int lowerBound = Math.max(minPoolSize, config.getMinimumIdle());
+        int recommended = clamp(needed, lowerBound, maxPoolSize);
+
+        String reason;
+        if (p95Waiting > 0) {
+            reason = "threads waited for a connection in over 5% of samples";
+        } else if (recommended > current) {
+            reason = "p95 utilization above target";
+        } else if (recommended < current) {
+            reason = "p95 utilization below target";
+        } else {
+            reason = "pool size matches demand";
+        }
+
+        boolean applied = false;
+        if (applyEnabled && recommended != current) {
+            int step = clamp(recommended - current, -maxStep, maxStep);
+            int target = current + step;
+            config.setMaximumPoolSize(target);
+            applied = true;
+            log.info("Resized connection pool {} from {} to {} (recommended {}, {})",
+                    pool.getPoolName(), current, target, recommended, reason);
+        } else if (recommended != current) {
+            log.info("Connection pool {} maximumPoolSize {} -> recommended {} ({}; p95 active {}, p95 waiting {}, peak {})",
+                    pool.getPoolName(), current, recommended, reason, p95Active, p95Waiting, peakActive);
+        }
+
+        window.recommendation = new Recommendation(current, recommended, p95Active, p95Waiting, peakActive,
+                active.length, reason, applied, Instant.now());
+    }
+
+    /**
+     * Latest recommendation per pool name; pools still filling their window are absent.
+     */
+    public Map<String, Recommendation> getRecommendations() {
+        Map<String, Recommendation> recommendations = new TreeMap<>();
+        windows.forEach((poolName, window) -> {
+            Recommendation recommendation = window.recommendation;
+            if (recommendation != null) {
+                recommendations.put(poolName, recommendation);
+            }
+        });
+        return recommendations;
+    }
+
+    private PoolWindow newWindow(String poolName) {
+        PoolWindow window = new PoolWindow(windowSamples);
+        Gauge.builder("hikaricp.advisor.recommended.max", window,
+                        w -> w.recommendation != null ? w.recommendation.recommendedMaximumPoolSize() : Double.NaN)
+                .description("Recommended maximumPoolSize from recent utilization")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        return window;
+    }
+
+    private static int percentile(int[] samples, double percentile) {
+        int[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+
+    /**
+     * Ring buffer of samples for one pool.
+     */
+    private static class PoolWindow {
+        private final int[] active;
+        private final int[] waiting;
+        private int count;
+        private int next;
+        private volatile Recommendation recommendation;
+
+        PoolWindow(int size) {
+            this.active = new int[size];
+            this.waiting = new int[size];
+        }
+
+        synchronized void add(int activeConnections, int waitingThreads) {
+            active[next] = activeConnections;
+            waiting[next] = waitingThreads;
+            next = (next + 1) % active.length;
+            count = Math.min(count + 1, active.length);
+        }
+
+        synchronized int[][] snapshot() {
+            return new int[][]{Arrays.copyOf(active, count), Arrays.copyOf(waiting, count)};
+        }
+    }
+
+    /**
+     * Outcome of the latest evaluation.
+     */
+    public record Recommendation(
+            int currentMaximumPoolSize,
+            int recommendedMaximumPoolSize,
+            int p95Active,
+            int p95Waiting,
+            int peakActive,
+            int samples,
+            String reason,
+            boolean applied,
+            Instant evaluatedAt
+    ) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.template.app.common.config.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the replica pool and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction's read-only flag is only bound after the transaction manager asks for a connection,
+ * so the physical connection has to be fetched lazily for the route to be decided correctly.
+ * Reads fall back to the primary while {@link ReplicaLagMonitor} reports the replica as unavailable.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.writes = routeCounter(meterRegistry, "write");
+        this.replicaReads = routeCounter(meterRegistry, "read");
+        this.fallbackReads = routeCounter(meterRegistry, "read-fallback");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Route.PRIMARY;
+        }
+        if (replicaAvailable) {
+            replicaReads.increment();
+            return Route.REPLICA;
+        }
+        fallbackReads.increment();
+        return Route.PRIMARY;
+    }
+
+    HikariDataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * Both pools keyed by pool name, primary first.
+     */
+    Map<String, HikariDataSource> getPools() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        pools.put(primary.getPoolName(), primary);
+        pools.put(replica.getPoolName(), replica);
+        return pools;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void setReplicaAvailable(boolean available) {
+        if (replicaAvailable != available) {
+            log.warn(available
+                    ? "Replica {} is back within lag limits; routing read-only transactions to it"
+                    : "Replica {} unavailable or lagging; routing read-only transactions to the primary",
+                    replica.getPoolName());
+        }
+        replicaAvailable = available;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("database.routing")
+                .description("Connections routed by transaction type")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
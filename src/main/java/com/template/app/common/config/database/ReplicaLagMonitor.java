@@ -0,0 +1,83 @@
+package com.template.app.common.config.database;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures replication lag on the read replica and takes it out of rotation while it is too far
+ * behind or unreachable. Does nothing when no replica is configured.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds since the last replayed transaction; 0 when everything received has been replayed
+     * (an idle primary would otherwise look like growing lag) or when the server is not a standby.
+     * NULL when the WAL receiver is not streaming: "everything received is replayed" then says nothing
+     * about how far behind the primary the replica is, so it must not count as caught up.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${database.replica.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    @PostConstruct
+    public void init() {
+        if (ConnectionPools.routing(dataSource).isPresent()) {
+            Gauge.builder("database.replica.lag", this, monitor -> monitor.lagSeconds)
+                    .description("Replication lag of the read replica")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${database.replica.lag-check-interval:5000}")
+    public void check() {
+        ConnectionPools.routing(dataSource).ifPresent(routing -> {
+            try {
+                Double lag = new JdbcTemplate(routing.getReplica()).queryForObject(LAG_SQL, Double.class);
+                if (lag == null) {
+                    if (!Double.isNaN(lagSeconds)) {
+                        log.warn("Replica WAL receiver is not streaming; routing reads to the primary");
+                    }
+                    lagSeconds = Double.NaN;
+                    routing.setReplicaAvailable(false);
+                    return;
+                }
+                lagSeconds = lag;
+                routing.setReplicaAvailable(lagSeconds <= maxLagSeconds);
+            } catch (Exception e) {
+                log.debug("Replica lag check failed: {}", e.getMessage());
+                lagSeconds = Double.NaN;
+                routing.setReplicaAvailable(false);
+            }
+        });
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
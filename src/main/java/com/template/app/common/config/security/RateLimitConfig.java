@@ -1,20 +1,29 @@
 package com.template.app.common.config.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.Refill;
+import com.template.app.common.filter.RateLimitFilter;
+import com.template.app.common.ratelimit.DistributedRateLimitBackend;
+import com.template.app.common.ratelimit.HybridRateLimitBackend;
+import com.template.app.common.ratelimit.LocalRateLimitBackend;
+import com.template.app.common.ratelimit.RateLimitBackend;
+import com.template.app.common.ratelimit.RateLimitEngine;
+import com.template.app.common.ratelimit.RateLimitPolicy;
+import com.template.app.common.ratelimit.RateLimitProperties;
 import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
-import java.util.function.Supplier;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Configuration
@@ -34,12 +43,6 @@ public class RateLimitConfig {
     @Value("${spring.data.redis.password:}")
     private String redisPassword;
 
-    @Value("${app.rate-limit.requests-per-minute:60}")
-    private int requestsPerMinute;
-
-    @Value("${app.rate-limit.burst-capacity:100}")
-    private int burstCapacity;
-
     @Bean
     public LettuceBasedProxyManager<String> proxyManager() {
         RedisURI.Builder uriBuilder = RedisURI.builder()
@@ -59,7 +62,6 @@ public class RateLimitConfig {
         );
 
         log.info("Rate limiting initialized with Redis at {}:{}", redisHost, redisPort);
-        log.info("Rate limit: {} requests/minute, burst capacity: {}", requestsPerMinute, burstCapacity);
 
         return LettuceBasedProxyManager.builderFor(connection)
                 .withExpirationStrategy(io.github.bucket4j.distributed.ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1)))
@@ -67,32 +69,76 @@ public class RateLimitConfig {
     }
 
     @Bean
-    public Supplier<BucketConfiguration> bucketConfiguration() {
-        return () -> {
-            // Refill strategy: replenish tokens at a fixed rate
-            Refill refill = Refill.intervally(requestsPerMinute, Duration.ofMinutes(1));
-
-            // Bandwidth: maximum capacity and refill strategy
-            Bandwidth limit = Bandwidth.classic(burstCapacity, refill);
-
-            return BucketConfiguration.builder()
-                    .addLimit(limit)
-                    .build();
-        };
+    public RateLimitEngine rateLimitEngine(RateLimitProperties properties,
+                                           LettuceBasedProxyManager<String> proxyManager,
+                                           MeterRegistry meterRegistry) {
+        RateLimitProperties.LocalConfig local = properties.getLocal();
+
+        Map<RateLimitPolicy.Backend, RateLimitBackend> backends = new EnumMap<>(RateLimitPolicy.Backend.class);
+        backends.put(RateLimitPolicy.Backend.LOCAL,
+                new LocalRateLimitBackend(local.getMaxMemory(), local.getIdleExpiry(), meterRegistry));
+        backends.put(RateLimitPolicy.Backend.DISTRIBUTED,
+                new DistributedRateLimitBackend(proxyManager));
+        backends.put(RateLimitPolicy.Backend.HYBRID,
+                new HybridRateLimitBackend(proxyManager, local.getBatchSize(),
+                        Duration.ofMillis(local.getLeaseMs()), local.getMaximumClients()));
+
+        return new RateLimitEngine(buildPolicies(properties), properties.getExcludedPaths(), backends);
+    }
+
+    /**
+     * Run the rate limit filter only inside the security chain (after JWT authentication),
+     * not a second time as a plain servlet filter.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     /**
-     * Creates a specific bucket for authentication endpoints with stricter limits
+     * Configured policies in declaration order, or the built-in set when none are configured.
+     * The first policy whose paths match a request is the only one charged.
      */
-    public Supplier<BucketConfiguration> authBucketConfiguration() {
-        return () -> {
-            // Auth endpoints: 10 requests per minute
-            Refill refill = Refill.intervally(10, Duration.ofMinutes(1));
-            Bandwidth limit = Bandwidth.classic(20, refill); // Burst of 20
-
-            return BucketConfiguration.builder()
-                    .addLimit(limit)
-                    .build();
-        };
+    private List<RateLimitPolicy> buildPolicies(RateLimitProperties properties) {
+        RateLimitPolicy.Backend defaultBackend = properties.getBackend();
+
+        if (!properties.getPolicies().isEmpty()) {
+            List<RateLimitPolicy> policies = new ArrayList<>();
+            for (RateLimitProperties.PolicyConfig config : properties.getPolicies()) {
+                policies.add(RateLimitPolicy.of(
+                        config.getName(),
+                        config.getPaths(),
+                        config.getCapacity(),
+                        config.getRefillTokens(),
+                        config.getRefillPeriod(),
+                        config.getKeyStrategy(),
+                        config.getBackend() != null ? config.getBackend() : defaultBackend
+                ));
+            }
+            return policies;
+        }
+
+        int oauth2PerMinute = properties.getOauth2().getRequestsPerMinute();
+
+        return List.of(
+                // OAuth2 verification: per-node buckets, as before
+                RateLimitPolicy.of("oauth2",
+                        List.of("/api/v1/auth/oauth2/google/verify",
+                                "/api/v1/auth/oauth2/kakao/verify",
+                                "/api/v1/auth/oauth2/apple/verify"),
+                        oauth2PerMinute, oauth2PerMinute, Duration.ofMinutes(1),
+                        RateLimitPolicy.KeyStrategy.IP, RateLimitPolicy.Backend.LOCAL),
+                // Auth endpoints: 10 requests per minute, burst of 20
+                RateLimitPolicy.of("auth",
+                        List.of("/api/v1/auth/login", "/api/v1/auth/signup", "/api/v1/auth/refresh"),
+                        20, 10, Duration.ofMinutes(1),
+                        RateLimitPolicy.KeyStrategy.IP, defaultBackend),
+                RateLimitPolicy.of("default",
+                        List.of("/**"),
+                        properties.getBurstCapacity(), properties.getRequestsPerMinute(), Duration.ofMinutes(1),
+                        RateLimitPolicy.KeyStrategy.USER_OR_IP, defaultBackend)
+        );
     }
 }
@@ -1,31 +0,0 @@
-package com.template.app.common.config.security;
-
-import com.template.app.common.interceptor.RateLimitInterceptor;
-import lombok.RequiredArgsConstructor;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-@RequiredArgsConstructor
-@org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(
-        name = "app.rate-limit.enabled",
-        havingValue = "true",
-        matchIfMissing = false
-)
-public class RateLimitingConfig implements WebMvcConfigurer {
-
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    @Override
-    public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RateLimitInterceptor(redisTemplate))
-                .addPathPatterns("/api/**")
-                .excludePathPatterns(
-                        "/api/v1/health",
-                        "/api/v1/health/live",
-                        "/api/v1/health/ready"
-                );
-    }
-}
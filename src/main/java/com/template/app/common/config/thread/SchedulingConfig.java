@@ -0,0 +1,25 @@
+package com.template.app.common.config.thread;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler for {@code @Scheduled} jobs on platform threads, sized by {@code spring.task.scheduling.pool.size}.
+ * <p>
+ * {@code @EnableWebSocketMessageBroker} registers its own TaskScheduler beans, which makes Boot's
+ * scheduling auto-configuration back off; without this bean the jobs would fall back to a single
+ * thread. It is named {@code taskScheduler} so {@code @Scheduled} resolves it among the broker's schedulers.
+ * {@link VirtualThreadConfig} provides the replacement in virtual-thread mode.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.template.app.common.config.thread;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling, {@code @Async} methods and {@code @Scheduled} jobs on virtual threads.
+ * <p>
+ * Opt-in with {@code app.threads.virtual.enabled}. Spring Boot 3.1 has no {@code spring.threads.virtual}
+ * switch, so the Tomcat executor and the task executor/scheduler beans that Boot would otherwise
+ * auto-configure are replaced here. Request concurrency is then bounded by {@code server.tomcat.max-connections}
+ * rather than {@code server.tomcat.max-threads}, and the Hikari pool becomes the real limit on database work.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Value("${app.threads.virtual.scheduler-pool-size:8}")
+    private int schedulerPoolSize;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Tomcat requests will run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    /**
+     * Replaces Boot's {@code applicationTaskExecutor}; also picked up by {@code @Async} and MVC async handling.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("async-vt-", 0).factory());
+    }
+
+    /**
+     * Scheduled jobs fire from a small pool of virtual workers, so a job blocked on Redis or the
+     * database no longer holds up the others.
+     */
+    @Bean
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-vt-", 0).factory());
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+}
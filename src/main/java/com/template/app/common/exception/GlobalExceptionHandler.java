@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 @Slf4j
@@ -192,6 +193,21 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.failure(error));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRejectedExecution(RejectedExecutionException e) {
+        log.warn("Task rejected, executor saturated: {}", e.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .message("Too many requests of this kind are in progress, try again later")
+                .code("SERVICE_BUSY")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.failure(error));
+    }
+
     @ExceptionHandler(MissingRequestHeaderException.class)
     public ResponseEntity<ApiResponse<Void>> handleMissingRequestHeader(
             MissingRequestHeaderException e) {
@@ -1,9 +1,11 @@
 package com.template.app.common.filter;
 
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.ConsumptionProbe;
-import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import com.template.app.common.ratelimit.RateLimitDecision;
+import com.template.app.common.ratelimit.RateLimitEngine;
+import com.template.app.common.ratelimit.RateLimitProperties;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,10 +17,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
 
+/**
+ * Applies the single matching rate limit policy to each request.
+ * Registered in the security chain after JWT authentication so user-keyed policies see the principal.
+ * <p>
+ * With {@code app.rate-limit.async=true} a Redis-bound check does not hold the request thread:
+ * the request is suspended with {@code startAsync}, and once the bucket update completes the
+ * result is stored as a request attribute and the request is re-dispatched through the chain.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -29,47 +38,105 @@ import java.util.function.Supplier;
 )
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final LettuceBasedProxyManager<String> proxyManager;
-    private final Supplier<BucketConfiguration> bucketConfiguration;
+    private static final String RESULT_ATTRIBUTE = RateLimitFilter.class.getName() + ".RESULT";
 
-    @org.springframework.beans.factory.annotation.Value("${app.rate-limit.burst-capacity:100}")
-    private int burstCapacity;
-
-    private static final Set<String> AUTH_ENDPOINTS = Set.of(
-            "/api/v1/auth/login",
-            "/api/v1/auth/signup",
-            "/api/v1/auth/refresh"
-    );
+    private final RateLimitEngine rateLimitEngine;
+    private final RateLimitProperties properties;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String clientId = getClientId(request);
-        String bucketKey = "rate_limit:" + clientId;
+        if (isAsyncDispatch(request)) {
+            resume(request, response, filterChain);
+            return;
+        }
+
+        if (properties.isAsync() && request.isAsyncSupported()) {
+            CompletableFuture<RateLimitEngine.Result> pending = rateLimitEngine.checkAsync(request);
+            if (pending != null && !pending.isDone()) {
+                suspend(request, pending);
+                return;
+            }
+            // Local tier hit or no policy: no need to leave the request thread
+            apply(pending != null ? pending.join() : null, request, response, filterChain);
+            return;
+        }
+
+        apply(rateLimitEngine.check(request), request, response, filterChain);
+    }
+
+    /**
+     * Also run on ASYNC dispatches so a suspended request can be resumed here.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void suspend(HttpServletRequest request, CompletableFuture<RateLimitEngine.Result> pending) {
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(properties.getAsyncTimeout().toMillis());
+        asyncContext.addListener(new TimeoutListener());
+
+        pending.whenComplete((result, error) -> {
+            request.setAttribute(RESULT_ATTRIBUTE, error != null ? error : result);
+            try {
+                asyncContext.dispatch();
+            } catch (IllegalStateException e) {
+                log.debug("Rate limit result arrived after the request completed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void resume(HttpServletRequest request,
+                        HttpServletResponse response,
+                        FilterChain filterChain) throws ServletException, IOException {
+        Object pending = request.getAttribute(RESULT_ATTRIBUTE);
+        request.removeAttribute(RESULT_ATTRIBUTE);
 
-        // Get or create bucket for this client
-        Bucket bucket = proxyManager.builder().build(bucketKey, bucketConfiguration);
+        if (pending instanceof Throwable error) {
+            throw new ServletException("Rate limit check failed", error);
+        }
 
-        // Try to consume 1 token
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        // Not our dispatch (e.g. a controller's own async result): the request was already charged
+        if (!(pending instanceof RateLimitEngine.Result result)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        apply(result, request, response, filterChain);
+    }
 
-        if (probe.isConsumed()) {
+    private void apply(RateLimitEngine.Result result,
+                       HttpServletRequest request,
+                       HttpServletResponse response,
+                       FilterChain filterChain) throws ServletException, IOException {
+        if (result == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitDecision decision = result.decision();
+        String limit = String.valueOf(result.policy().capacity());
+
+        if (decision.allowed()) {
             // Request allowed - add rate limit headers
-            response.addHeader("X-RateLimit-Limit", String.valueOf(burstCapacity));
-            response.addHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
-            response.addHeader("X-RateLimit-Reset", String.valueOf(TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill())));
+            response.addHeader("X-RateLimit-Limit", limit);
+            response.addHeader("X-RateLimit-Remaining", String.valueOf(decision.remainingTokens()));
+            response.addHeader("X-RateLimit-Reset", String.valueOf(TimeUnit.NANOSECONDS.toSeconds(decision.nanosToWaitForRefill())));
 
             filterChain.doFilter(request, response);
         } else {
             // Rate limit exceeded
-            long waitForRefill = TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill());
+            long waitForRefill = TimeUnit.NANOSECONDS.toSeconds(decision.nanosToWaitForRefill());
 
-            log.warn("Rate limit exceeded for client: {}. Retry after {} seconds", clientId, waitForRefill);
+            log.warn("Rate limit '{}' exceeded for client: {}. Retry after {} seconds",
+                    result.policy().name(), result.clientKey(), waitForRefill);
 
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.addHeader("X-RateLimit-Limit", String.valueOf(burstCapacity));
+            response.addHeader("X-RateLimit-Limit", limit);
             response.addHeader("X-RateLimit-Remaining", "0");
             response.addHeader("X-RateLimit-Reset", String.valueOf(waitForRefill));
             response.addHeader("Retry-After", String.valueOf(waitForRefill));
@@ -82,61 +149,29 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
     }
 
-    @Override
-    protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-
-        // Skip rate limiting for actuator endpoints
-        if (path.startsWith("/actuator")) {
-            return true;
-        }
-
-        // Skip rate limiting for static resources
-        if (path.startsWith("/static") || path.startsWith("/public")) {
-            return true;
-        }
-
-        return false;
-    }
-
     /**
-     * Get client identifier for rate limiting.
-     * Priority: User ID > IP Address
+     * Answers 503 if Redis has not responded within {@code app.rate-limit.async-timeout}.
      */
-    private String getClientId(HttpServletRequest request) {
-        // Try to get authenticated user ID from request attribute (set by JWT filter)
-        Object userId = request.getAttribute("userId");
-        if (userId != null) {
-            return "user:" + userId;
+    private static class TimeoutListener implements AsyncListener {
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            log.warn("Rate limit check timed out");
+            HttpServletResponse response = (HttpServletResponse) event.getAsyncContext().getResponse();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            event.getAsyncContext().complete();
         }
 
-        // Fall back to IP address for unauthenticated requests
-        String clientIp = getClientIp(request);
-        String path = request.getRequestURI();
-
-        // For auth endpoints, use IP-based rate limiting
-        if (AUTH_ENDPOINTS.contains(path)) {
-            return "auth_ip:" + clientIp;
+        @Override
+        public void onComplete(AsyncEvent event) {
         }
 
-        return "ip:" + clientIp;
-    }
-
-    /**
-     * Get client IP address, considering proxy headers
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // X-Forwarded-For can contain multiple IPs, take the first one
-            return xForwardedFor.split(",")[0].trim();
+        @Override
+        public void onError(AsyncEvent event) {
         }
 
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        @Override
+        public void onStartAsync(AsyncEvent event) {
         }
-
-        return request.getRemoteAddr();
     }
 }
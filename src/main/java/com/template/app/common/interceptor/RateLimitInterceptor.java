@@ -1,83 +0,0 @@
-package com.template.app.common.interceptor;
-
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.servlet.HandlerInterceptor;
-
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-@Slf4j
-@RequiredArgsConstructor
-public class RateLimitInterceptor implements HandlerInterceptor {
-
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-
-    // Default: 60 requests per minute
-    private static final int DEFAULT_REQUESTS_PER_MINUTE = 60;
-    private static final int BURST_CAPACITY = 100;
-
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String key = getClientKey(request);
-        Bucket bucket = resolveBucket(key);
-
-        if (bucket.tryConsume(1)) {
-            // Request allowed
-            long availableTokens = bucket.getAvailableTokens();
-            response.addHeader("X-Rate-Limit-Remaining", String.valueOf(availableTokens));
-            return true;
-        }
-
-        // Rate limit exceeded
-        log.warn("Rate limit exceeded for key: {}", key);
-        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-        response.addHeader("X-Rate-Limit-Retry-After-Seconds", "60");
-        response.getWriter().write("{\"error\":\"Too many requests\",\"message\":\"Rate limit exceeded. Please try again later.\"}");
-        return false;
-    }
-
-    private Bucket resolveBucket(String key) {
-        return cache.computeIfAbsent(key, k -> createNewBucket());
-    }
-
-    private Bucket createNewBucket() {
-        // Allow bursts up to BURST_CAPACITY, refill at rate of DEFAULT_REQUESTS_PER_MINUTE per minute
-        Bandwidth limit = Bandwidth.classic(
-                BURST_CAPACITY,
-                Refill.intervally(DEFAULT_REQUESTS_PER_MINUTE, Duration.ofMinutes(1))
-        );
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
-    }
-
-    private String getClientKey(HttpServletRequest request) {
-        // Use IP address as key (can be enhanced with user ID for authenticated requests)
-        String clientIp = getClientIp(request);
-        return "rate_limit:" + clientIp;
-    }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
-}
@@ -0,0 +1,48 @@
+package com.template.app.common.ratelimit;
+
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Redis-backed buckets shared by all nodes; one compare-and-swap round trip per request.
+ */
+public class DistributedRateLimitBackend implements RateLimitBackend {
+
+    private final ProxyManager<String> proxyManager;
+    private final AsyncProxyManager<String> asyncProxyManager;
+
+    public DistributedRateLimitBackend(ProxyManager<String> proxyManager) {
+        this.proxyManager = proxyManager;
+        this.asyncProxyManager = proxyManager.isAsyncModeSupported() ? proxyManager.asAsync() : null;
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitPolicy policy) {
+        ConsumptionProbe probe = proxyManager.builder()
+                .build(key, policy::bucketConfiguration)
+                .tryConsumeAndReturnRemaining(1);
+
+        return toDecision(probe);
+    }
+
+    @Override
+    public CompletableFuture<RateLimitDecision> tryConsumeAsync(String key, RateLimitPolicy policy) {
+        if (asyncProxyManager == null) {
+            return RateLimitBackend.super.tryConsumeAsync(key, policy);
+        }
+
+        return asyncProxyManager.builder()
+                .build(key, () -> CompletableFuture.completedFuture(policy.bucketConfiguration()))
+                .tryConsumeAndReturnRemaining(1)
+                .thenApply(DistributedRateLimitBackend::toDecision);
+    }
+
+    private static RateLimitDecision toDecision(ConsumptionProbe probe) {
+        return probe.isConsumed()
+                ? RateLimitDecision.allowed(probe.getRemainingTokens(), probe.getNanosToWaitForRefill())
+                : RateLimitDecision.rejected(probe.getNanosToWaitForRefill());
+    }
+}
@@ -0,0 +1,202 @@
+package com.template.app.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier token bucket: a per-node local tier in front of the distributed Bucket4j bucket.
+ * <p>
+ * Instead of one Redis CAS per request, a node reserves up to {@code batchSize} tokens at a time from
+ * the client's Redis bucket and hands them out in-process. Only when the local reservation runs
+ * dry does the request go to Redis. When a reservation expires after {@code leaseDuration} (or is
+ * evicted for size), its unused tokens are added back to the Redis bucket, so a client that sends one
+ * request per lease is charged one token per request, not a whole batch. The global limit can only be
+ * under-, never over-shot: tokens are drained from the reservation before they are returned.
+ * The batch is capped at a tenth of the policy capacity so small buckets are not hoarded by one node.
+ */
+@Slf4j
+public class HybridRateLimitBackend implements RateLimitBackend {
+
+    private final ProxyManager<String> proxyManager;
+    private final AsyncProxyManager<String> asyncProxyManager;
+    private final long batchSize;
+    private final Cache<String, Reservation> reservations;
+
+    public HybridRateLimitBackend(ProxyManager<String> proxyManager, long batchSize, Duration leaseDuration, long maximumClients) {
+        this.proxyManager = proxyManager;
+        this.asyncProxyManager = proxyManager.isAsyncModeSupported() ? proxyManager.asAsync() : null;
+        this.batchSize = Math.max(1, batchSize);
+        this.reservations = Caffeine.newBuilder()
+                .expireAfterWrite(leaseDuration)
+                .maximumSize(maximumClients)
+                // Expire leases on time even for clients that never come back
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener(this::release)
+                .build();
+    }
+
+    /**
+     * Hand the unused part of a lease back to the Redis bucket. Runs on Caffeine's executor, off the
+     * request path. A reservation replaced by a newer one has already passed its tokens on.
+     */
+    private void release(String key, Reservation reservation, RemovalCause cause) {
+        if (key == null || reservation == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+
+        long leftover = reservation.drain();
+        if (leftover <= 0) {
+            return;
+        }
+        try {
+            proxyManager.builder().build(key, reservation.policy()::bucketConfiguration).addTokens(leftover);
+        } catch (Exception e) {
+            // The tokens are lost for this window; the bucket refills as usual
+            log.debug("Could not return {} reserved tokens for {}: {}", leftover, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitPolicy policy) {
+        Reservation reservation = reservations.getIfPresent(key);
+        if (reservation != null && reservation.tryTake()) {
+            return reservation.decision();
+        }
+
+        BucketProxy bucket = proxyManager.builder().build(key, policy::bucketConfiguration);
+
+        long policyBatch = batchFor(policy);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(policyBatch);
+        if (probe.isConsumed()) {
+            return grant(key, policy, policyBatch, probe);
+        }
+
+        // Not enough for a full batch: take whatever is left, unless nothing is
+        if (probe.getRemainingTokens() <= 0) {
+            return RateLimitDecision.rejected(probe.getNanosToWaitForRefill());
+        }
+        long granted = partialBatch(probe, policyBatch);
+        return grantOrReject(key, policy, granted, bucket.tryConsumeAndReturnRemaining(granted));
+    }
+
+    @Override
+    public CompletableFuture<RateLimitDecision> tryConsumeAsync(String key, RateLimitPolicy policy) {
+        if (asyncProxyManager == null) {
+            return RateLimitBackend.super.tryConsumeAsync(key, policy);
+        }
+
+        Reservation reservation = reservations.getIfPresent(key);
+        if (reservation != null && reservation.tryTake()) {
+            return CompletableFuture.completedFuture(reservation.decision());
+        }
+
+        AsyncBucketProxy bucket = asyncProxyManager.builder()
+                .build(key, () -> CompletableFuture.completedFuture(policy.bucketConfiguration()));
+
+        long policyBatch = batchFor(policy);
+        return bucket.tryConsumeAndReturnRemaining(policyBatch).thenCompose(probe -> {
+            if (probe.isConsumed()) {
+                return CompletableFuture.completedFuture(grant(key, policy, policyBatch, probe));
+            }
+
+            if (probe.getRemainingTokens() <= 0) {
+                return CompletableFuture.completedFuture(RateLimitDecision.rejected(probe.getNanosToWaitForRefill()));
+            }
+            long granted = partialBatch(probe, policyBatch);
+            return bucket.tryConsumeAndReturnRemaining(granted)
+                    .thenApply(retry -> grantOrReject(key, policy, granted, retry));
+        });
+    }
+
+    private long batchFor(RateLimitPolicy policy) {
+        return Math.min(batchSize, Math.max(1, policy.capacity() / 10));
+    }
+
+    private static long partialBatch(ConsumptionProbe probe, long policyBatch) {
+        return Math.min(probe.getRemainingTokens(), policyBatch);
+    }
+
+    private RateLimitDecision grantOrReject(String key, RateLimitPolicy policy, long granted, ConsumptionProbe probe) {
+        return probe.isConsumed()
+                ? grant(key, policy, granted, probe)
+                : RateLimitDecision.rejected(probe.getNanosToWaitForRefill());
+    }
+
+    private RateLimitDecision grant(String key, RateLimitPolicy policy, long granted, ConsumptionProbe probe) {
+        // One token is for the current request, the rest go to the local tier
+        long spare = granted - 1;
+        if (spare > 0) {
+            Reservation fresh = new Reservation(policy, spare, probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+            reservations.asMap().merge(key, fresh, Reservation::absorb);
+        }
+
+        return RateLimitDecision.allowed(probe.getRemainingTokens() + spare, probe.getNanosToWaitForRefill());
+    }
+
+    /**
+     * Tokens reserved from Redis that this node may hand out without further coordination.
+     */
+    private static final class Reservation {
+
+        private final RateLimitPolicy policy;
+        private final AtomicLong tokens;
+        private final long remoteRemaining;
+        private final long nanosToWaitForRefill;
+
+        private Reservation(RateLimitPolicy policy, long tokens, long remoteRemaining, long nanosToWaitForRefill) {
+            this.policy = policy;
+            this.tokens = new AtomicLong(tokens);
+            this.remoteRemaining = remoteRemaining;
+            this.nanosToWaitForRefill = nanosToWaitForRefill;
+        }
+
+        boolean tryTake() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        RateLimitPolicy policy() {
+            return policy;
+        }
+
+        /**
+         * Take every token still left, so none can be handed out after being returned.
+         */
+        long drain() {
+            return tokens.getAndSet(0);
+        }
+
+        RateLimitDecision decision() {
+            return RateLimitDecision.allowed(remoteRemaining + tokens.get(), nanosToWaitForRefill);
+        }
+
+        /**
+         * Keep tokens still left in an existing reservation when a concurrent request reserved a new batch.
+         */
+        Reservation absorb(Reservation newer) {
+            long leftover = tokens.getAndSet(0);
+            if (leftover > 0) {
+                newer.tokens.addAndGet(leftover);
+            }
+            return newer;
+        }
+    }
+}
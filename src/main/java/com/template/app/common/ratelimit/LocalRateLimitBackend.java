@@ -0,0 +1,230 @@
+package com.template.app.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process token buckets in a fixed-size primitive table. Limits are enforced per node.
+ * <p>
+ * Each slot is two longs: a 64-bit hash of the bucket key, and the bucket state packed as
+ * {@code tokens (24 bits) | last refill millis (40 bits)}. Both are updated with CAS, so there are
+ * no per-client objects and no locks. The table is allocated once from {@code maxMemory} and never grows.
+ * <p>
+ * Keys are placed by linear probing over a short window. When the window is full the entry with the
+ * oldest refill time is reclaimed; it is counted as expired if it has been idle longer than
+ * {@code idleExpiry}, otherwise as a capacity eviction (a sign the table is too small).
+ * A reclaimed client simply starts again with a full bucket. The reclaimer first CASes the state to
+ * {@link #RECLAIMING}, then swaps the key and resets the state, so no consumer can update a bucket
+ * while it changes owner.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    /**
+     * Largest bucket capacity that fits in the packed state.
+     */
+    public static final long MAX_TOKENS = (1L << 24) - 1;
+
+    private static final int SLOT_BYTES = 2 * Long.BYTES;
+    private static final int MAX_PROBES = 8;
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long EMPTY = 0L;
+
+    /**
+     * State of a slot whose key is being replaced; never a real packed state, since a stored
+     * token count is always below {@link #MAX_TOKENS}.
+     */
+    private static final long RECLAIMING = -1L;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final int mask;
+    private final long idleExpiryMillis;
+    private final long originNanos = System.nanoTime();
+
+    private final LongAdder occupied = new LongAdder();
+    private final Counter expiredEvictions;
+    private final Counter capacityEvictions;
+
+    public LocalRateLimitBackend(DataSize maxMemory, Duration idleExpiry, MeterRegistry meterRegistry) {
+        long maxSlots = Math.max(MAX_PROBES, Math.min(maxMemory.toBytes() / SLOT_BYTES, 1 << 30));
+        int slots = Integer.highestOneBit((int) maxSlots);
+
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.idleExpiryMillis = idleExpiry.toMillis();
+
+        Gauge.builder("ratelimit.local.slots", () -> slots)
+                .description("Capacity of the local rate limit table")
+                .register(meterRegistry);
+
+        Gauge.builder("ratelimit.local.entries", occupied, LongAdder::sum)
+                .description("Occupied slots in the local rate limit table")
+                .register(meterRegistry);
+
+        this.expiredEvictions = Counter.builder("ratelimit.local.evictions")
+                .description("Local rate limit entries reclaimed after going idle")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+
+        this.capacityEvictions = Counter.builder("ratelimit.local.evictions")
+                .description("Active local rate limit entries reclaimed because the table was full")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitPolicy policy) {
+        long hash = hash(key);
+        long now = nowMillis();
+
+        while (true) {
+            int slot = findSlot(hash, now);
+            RateLimitDecision decision = consume(slot, hash, policy, now);
+            if (decision != null) {
+                return decision;
+            }
+            // Slot was reclaimed by another key in the meantime; look it up again
+        }
+    }
+
+    private int findSlot(long hash, long now) {
+        int start = (int) (hash ^ (hash >>> 32)) & mask;
+        int victim = start;
+        long victimRefill = Long.MAX_VALUE;
+
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (start + i) & mask;
+            long current = keys.get(slot);
+
+            if (current == hash) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                if (keys.compareAndSet(slot, EMPTY, hash)) {
+                    occupied.increment();
+                    return slot;
+                }
+                if (keys.get(slot) == hash) {
+                    return slot;
+                }
+                continue;
+            }
+
+            long lastRefill = states.get(slot) & TIME_MASK;
+            if (lastRefill < victimRefill) {
+                victim = slot;
+                victimRefill = lastRefill;
+            }
+        }
+
+        // Probe window is full: reclaim the least recently refilled entry
+        long victimState = states.get(victim);
+        long victimKey = keys.get(victim);
+        if (victimKey == hash || victimState == RECLAIMING
+                || !states.compareAndSet(victim, victimState, RECLAIMING)) {
+            return victim;
+        }
+
+        if (keys.compareAndSet(victim, victimKey, hash)) {
+            states.set(victim, EMPTY);
+            if (now - (victimState & TIME_MASK) > idleExpiryMillis) {
+                expiredEvictions.increment();
+            } else {
+                capacityEvictions.increment();
+            }
+        } else {
+            // Another reclaimer got there first; put the state back untouched
+            states.set(victim, victimState);
+        }
+        return victim;
+    }
+
+    /**
+     * Refill and take one token with a CAS loop.
+     *
+     * @return the decision, or null if the slot no longer belongs to this key
+     */
+    private RateLimitDecision consume(int slot, long hash, RateLimitPolicy policy, long now) {
+        long capacity = Math.min(policy.capacity(), MAX_TOKENS);
+        long periodMillis = Math.max(1, policy.refillPeriod().toMillis());
+
+        while (true) {
+            long state = states.get(slot);
+            if (state == RECLAIMING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (keys.get(slot) != hash) {
+                return null;
+            }
+
+            long tokens;
+            long lastRefill;
+            if (state == EMPTY) {
+                tokens = capacity;
+                lastRefill = now;
+            } else {
+                tokens = state >>> TIME_BITS;
+                lastRefill = state & TIME_MASK;
+
+                // Interval refill: whole periods only, as Refill.intervally does
+                long periods = (now - lastRefill) / periodMillis;
+                if (periods > 0) {
+                    tokens = periods >= capacity
+                            ? capacity
+                            : Math.min(capacity, tokens + periods * policy.refillTokens());
+                    lastRefill += periods * periodMillis;
+                }
+            }
+
+            long nanosToWaitForRefill = TimeUnit.MILLISECONDS.toNanos(lastRefill + periodMillis - now);
+            if (tokens == 0) {
+                return RateLimitDecision.rejected(nanosToWaitForRefill);
+            }
+
+            long next = (tokens - 1) << TIME_BITS | lastRefill;
+            if (states.compareAndSet(slot, state, next)) {
+                if (keys.get(slot) == hash) {
+                    return RateLimitDecision.allowed(tokens - 1, nanosToWaitForRefill);
+                }
+                // The slot was reclaimed and its new state happened to equal ours; give the token back
+                states.compareAndSet(slot, next, state);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Milliseconds since this table was created, starting at 1 so a packed state is never {@link #EMPTY}.
+     */
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - originNanos) + 1;
+    }
+
+    /**
+     * 64-bit FNV-1a with a murmur3 finalizer; never returns {@link #EMPTY}.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+}
@@ -0,0 +1,27 @@
+package com.template.app.common.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage strategy for token buckets.
+ * Implementations decide where bucket state lives (in-process, Redis, or both).
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Try to take one token from the bucket identified by {@code key}.
+     *
+     * @param key    fully-qualified bucket key (policy + client)
+     * @param policy policy that defines the bucket's capacity and refill
+     * @return the decision for this request
+     */
+    RateLimitDecision tryConsume(String key, RateLimitPolicy policy);
+
+    /**
+     * Non-blocking variant of {@link #tryConsume(String, RateLimitPolicy)}.
+     * Backends without a remote round trip complete immediately on the calling thread.
+     */
+    default CompletableFuture<RateLimitDecision> tryConsumeAsync(String key, RateLimitPolicy policy) {
+        return CompletableFuture.completedFuture(tryConsume(key, policy));
+    }
+}
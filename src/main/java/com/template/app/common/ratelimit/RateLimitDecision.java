@@ -0,0 +1,19 @@
+package com.template.app.common.ratelimit;
+
+/**
+ * Outcome of a single rate-limit check.
+ *
+ * @param allowed              whether the request may proceed
+ * @param remainingTokens      tokens left for this client after the check
+ * @param nanosToWaitForRefill time until the next token becomes available
+ */
+public record RateLimitDecision(boolean allowed, long remainingTokens, long nanosToWaitForRefill) {
+
+    public static RateLimitDecision allowed(long remainingTokens, long nanosToWaitForRefill) {
+        return new RateLimitDecision(true, remainingTokens, nanosToWaitForRefill);
+    }
+
+    public static RateLimitDecision rejected(long nanosToWaitForRefill) {
+        return new RateLimitDecision(false, 0, nanosToWaitForRefill);
+    }
+}
@@ -0,0 +1,133 @@
+package com.template.app.common.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single entry point for rate limiting.
+ * <p>
+ * For each request the path is parsed once, the first matching policy is selected,
+ * the client key is resolved once and exactly one bucket is charged on the policy's backend.
+ */
+@Slf4j
+public class RateLimitEngine {
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    private final List<RateLimitPolicy> policies;
+    private final List<PathPattern> excludedPaths;
+    private final Map<RateLimitPolicy.Backend, RateLimitBackend> backends;
+
+    public RateLimitEngine(List<RateLimitPolicy> policies,
+                           List<String> excludedPaths,
+                           Map<RateLimitPolicy.Backend, RateLimitBackend> backends) {
+        this.policies = List.copyOf(policies);
+        this.excludedPaths = excludedPaths.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.backends = Map.copyOf(backends);
+
+        policies.forEach(policy -> log.info("Rate limit policy '{}': capacity {}, key {}, backend {}, paths {}",
+                policy.name(), policy.capacity(), policy.keyStrategy(), policy.backend(), policy.pathPatterns()));
+    }
+
+    /**
+     * Charge the request against its policy.
+     *
+     * @return the result, or null if the request is excluded or matches no policy
+     */
+    public Result check(HttpServletRequest request) {
+        Match match = match(request);
+        if (match == null) {
+            return null;
+        }
+
+        RateLimitDecision decision = backends.get(match.policy().backend()).tryConsume(match.bucketKey(), match.policy());
+        return new Result(match.policy(), match.clientKey(), decision);
+    }
+
+    /**
+     * Non-blocking variant of {@link #check(HttpServletRequest)}. The policy and client key are
+     * resolved on the calling thread; only the bucket update may complete later.
+     *
+     * @return the pending result, or null if the request is excluded or matches no policy
+     */
+    public CompletableFuture<Result> checkAsync(HttpServletRequest request) {
+        Match match = match(request);
+        if (match == null) {
+            return null;
+        }
+
+        return backends.get(match.policy().backend())
+                .tryConsumeAsync(match.bucketKey(), match.policy())
+                .thenApply(decision -> new Result(match.policy(), match.clientKey(), decision));
+    }
+
+    private Match match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+
+        for (PathPattern excluded : excludedPaths) {
+            if (excluded.matches(path)) {
+                return null;
+            }
+        }
+
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(path)) {
+                String clientKey = resolveClientKey(request, policy.keyStrategy());
+                return new Match(policy, clientKey, KEY_PREFIX + policy.name() + ":" + clientKey);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get client identifier for rate limiting.
+     * Priority: User ID > IP Address
+     */
+    private String resolveClientKey(HttpServletRequest request, RateLimitPolicy.KeyStrategy keyStrategy) {
+        if (keyStrategy == RateLimitPolicy.KeyStrategy.USER_OR_IP) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof String userId) {
+                return "user:" + userId;
+            }
+        }
+
+        return "ip:" + getClientIp(request);
+    }
+
+    /**
+     * Get client IP address, considering proxy headers
+     */
+    private String getClientIp(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            // X-Forwarded-For can contain multiple IPs, take the first one
+            int comma = xForwardedFor.indexOf(',');
+            return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    public record Result(RateLimitPolicy policy, String clientKey, RateLimitDecision decision) {
+    }
+
+    private record Match(RateLimitPolicy policy, String clientKey, String bucketKey) {
+    }
+}
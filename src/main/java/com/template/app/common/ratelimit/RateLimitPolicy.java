@@ -0,0 +1,80 @@
+package com.template.app.common.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Immutable, pre-compiled rate limit rule for a set of routes.
+ * Path patterns and the bucket configuration are built once at startup.
+ */
+public record RateLimitPolicy(
+        String name,
+        List<PathPattern> pathPatterns,
+        long capacity,
+        long refillTokens,
+        Duration refillPeriod,
+        BucketConfiguration bucketConfiguration,
+        KeyStrategy keyStrategy,
+        Backend backend
+) {
+
+    public enum KeyStrategy {
+        /**
+         * Authenticated user ID when available, client IP otherwise
+         */
+        USER_OR_IP,
+        /**
+         * Always the client IP
+         */
+        IP
+    }
+
+    public enum Backend {
+        /**
+         * Per-node in-memory buckets
+         */
+        LOCAL,
+        /**
+         * Redis buckets, one round trip per request
+         */
+        DISTRIBUTED,
+        /**
+         * Redis buckets with a local token reservation tier
+         */
+        HYBRID
+    }
+
+    public static RateLimitPolicy of(String name,
+                                     List<String> paths,
+                                     long capacity,
+                                     long refillTokens,
+                                     Duration refillPeriod,
+                                     KeyStrategy keyStrategy,
+                                     Backend backend) {
+        List<PathPattern> patterns = paths.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(refillTokens, refillPeriod)))
+                .build();
+
+        return new RateLimitPolicy(name, patterns, capacity, refillTokens, refillPeriod, configuration, keyStrategy, backend);
+    }
+
+    public boolean matches(PathContainer path) {
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.template.app.common.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting settings under {@code app.rate-limit}.
+ * When no {@code policies} are configured, the built-in OAuth2, auth and default policies are used.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = false;
+    private int requestsPerMinute = 60;
+    private int burstCapacity = 100;
+    private RateLimitPolicy.Backend backend = RateLimitPolicy.Backend.HYBRID;
+    private boolean async = false;
+    private Duration asyncTimeout = Duration.ofSeconds(5);
+    private LocalConfig local = new LocalConfig();
+    private OAuth2Config oauth2 = new OAuth2Config();
+    private List<String> excludedPaths = new ArrayList<>(List.of(
+            "/actuator/**",
+            "/static/**",
+            "/public/**",
+            "/api/v1/health",
+            "/api/v1/health/live",
+            "/api/v1/health/ready"
+    ));
+    private List<PolicyConfig> policies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class LocalConfig {
+        private long batchSize = 10;
+        private long leaseMs = 1000;
+        private long maximumClients = 100_000;
+        private Duration idleExpiry = Duration.ofHours(1);
+        private DataSize maxMemory = DataSize.ofMegabytes(4);
+    }
+
+    @Getter
+    @Setter
+    public static class OAuth2Config {
+        private int requestsPerMinute = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class PolicyConfig {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private long capacity;
+        private long refillTokens;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+        private RateLimitPolicy.KeyStrategy keyStrategy = RateLimitPolicy.KeyStrategy.USER_OR_IP;
+        private RateLimitPolicy.Backend backend; // null = app.rate-limit.backend
+    }
+}
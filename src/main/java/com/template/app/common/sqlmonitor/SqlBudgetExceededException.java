@@ -0,0 +1,12 @@
+package com.template.app.common.sqlmonitor;
+
+/**
+ * Thrown when a scope issues more statements than its budget and
+ * {@code app.sql-monitor.fail-on-budget-exceeded} is set.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String scopeName, int statements, int budget) {
+        super(scopeName + " issued " + statements + " SQL statements, budget is " + budget);
+    }
+}
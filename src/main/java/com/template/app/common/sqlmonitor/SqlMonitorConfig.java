@@ -0,0 +1,24 @@
+package com.template.app.common.sqlmonitor;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Hibernate hooks that feed {@link SqlStatementRecorder}.
+ */
+@Configuration
+public class SqlMonitorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMonitorHibernatePropertiesCustomizer(SqlMonitorProperties properties) {
+        return hibernateProperties -> {
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+                hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                        SqlTimingSessionListener.class.getName());
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.template.app.common.sqlmonitor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statement monitoring settings under {@code app.sql-monitor}.
+ * Budgets are keyed by {@code "<METHOD> <path pattern>"} for requests or {@code "<Class>.<method>"} for
+ * {@code @Transactional} methods; scopes without an entry use {@code default-budget}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public class SqlMonitorProperties {
+    private boolean enabled = true;
+    /** Also measure each {@code @Transactional} method, not just HTTP requests */
+    private boolean trackTransactions = true;
+    /** The same statement this many times in one scope is reported as an N+1 pattern */
+    private int repeatedStatementThreshold = 10;
+    private Duration slowStatementThreshold = Duration.ofMillis(500);
+    /** Statements per scope; 0 disables the default budget */
+    private int defaultBudget = 100;
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+    /**
+     * Throw {@link SqlBudgetExceededException} instead of logging. Test-only: the check runs after the
+     * transaction has committed and after the response has been written, so it fails the test but
+     * neither rolls anything back nor changes what a client receives.
+     */
+    private boolean failOnBudgetExceeded = false;
+
+    public int budgetFor(String scopeName) {
+        return budgets.getOrDefault(scopeName, defaultBudget);
+    }
+}
@@ -0,0 +1,52 @@
+package com.template.app.common.sqlmonitor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements issued within one request or {@code @Transactional} method, on one thread.
+ * Not thread-safe; only touched by the thread that opened it.
+ */
+public final class SqlScope {
+
+    /**
+     * Distinct statements tracked per scope; anything beyond still counts but is not checked for repetition.
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private int statements;
+    private long executionNanos;
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+
+    void statement(String sql) {
+        statements++;
+        if (countsBySql.size() < MAX_DISTINCT_STATEMENTS || countsBySql.containsKey(sql)) {
+            countsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void executed(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    /**
+     * Statements issued at least {@code threshold} times, most repeated first.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
@@ -0,0 +1,87 @@
+package com.template.app.common.sqlmonitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a finished {@link SqlScope}: statement count and time histograms, N+1 detection and budget checks.
+ * <p>
+ * Meters are tagged {@code scope=request|transaction} and {@code name}, which is the request's
+ * method and path pattern or the {@code @Transactional} method.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlScopeReporter {
+
+    static final String SCOPE_REQUEST = "request";
+    static final String SCOPE_TRANSACTION = "transaction";
+
+    private final SqlMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        Counter slowStatements = Counter.builder("sql.slow")
+                .description("SQL statements slower than app.sql-monitor.slow-statement-threshold")
+                .register(meterRegistry);
+        SqlStatementRecorder.configure(properties.getSlowStatementThreshold().toNanos(), slowStatements::increment);
+    }
+
+    public void report(String scopeType, String name, SqlScope scope) {
+        int statements = scope.getStatements();
+
+        DistributionSummary.builder("sql.statements")
+                .description("SQL statements per scope")
+                .tag("scope", scopeType)
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder("sql.time")
+                .description("Time spent executing SQL per scope")
+                .tag("scope", scopeType)
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(scope.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        if (statements == 0) {
+            return;
+        }
+
+        Map<String, Integer> repeated = scope.repeatedStatements(properties.getRepeatedStatementThreshold());
+        if (!repeated.isEmpty()) {
+            counter("sql.n_plus_one", "Scopes that repeated one statement past the threshold", scopeType, name).increment();
+            repeated.forEach((sql, count) ->
+                    log.warn("Possible N+1 in {} {}: statement executed {} times: {}",
+                            scopeType, name, count, SqlStatementRecorder.abbreviate(sql)));
+        }
+
+        int budget = properties.budgetFor(name);
+        if (budget > 0 && statements > budget) {
+            counter("sql.budget.exceeded", "Scopes that issued more statements than their budget", scopeType, name).increment();
+            if (properties.isFailOnBudgetExceeded()) {
+                throw new SqlBudgetExceededException(name, statements, budget);
+            }
+            log.warn("{} {} issued {} SQL statements, budget is {}", scopeType, name, statements, budget);
+        }
+    }
+
+    private Counter counter(String meterName, String description, String scopeType, String name) {
+        return Counter.builder(meterName)
+                .description(description)
+                .tag("scope", scopeType)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+}
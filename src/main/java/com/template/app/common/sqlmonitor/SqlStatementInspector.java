@@ -0,0 +1,15 @@
+package com.template.app.common.sqlmonitor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares; the statement itself is passed through unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementRecorder.statement(sql);
+        return sql;
+    }
+}
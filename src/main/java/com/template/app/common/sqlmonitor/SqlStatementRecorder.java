@@ -0,0 +1,95 @@
+package com.template.app.common.sqlmonitor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-bound collection point between Hibernate and the monitoring scopes.
+ * <p>
+ * Hibernate instantiates its statement hooks itself, so they reach the active scopes through this
+ * class rather than through Spring. Scopes nest (a request calling {@code @Transactional} methods);
+ * every statement counts towards all scopes open on the thread. Statements outside any scope only
+ * go through the slow-statement check.
+ */
+@Slf4j
+public final class SqlStatementRecorder {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;
+
+    private static final ThreadLocal<Deque<SqlScope>> SCOPES = new ThreadLocal<>();
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    private static volatile long slowStatementNanos = Long.MAX_VALUE;
+    private static volatile Runnable slowStatementListener = () -> { };
+
+    private SqlStatementRecorder() {
+    }
+
+    static void configure(long slowThresholdNanos, Runnable onSlowStatement) {
+        slowStatementNanos = slowThresholdNanos;
+        slowStatementListener = onSlowStatement;
+    }
+
+    public static SqlScope begin() {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>(4);
+            SCOPES.set(scopes);
+        }
+        SqlScope scope = new SqlScope();
+        scopes.push(scope);
+        return scope;
+    }
+
+    public static void end(SqlScope scope) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            LAST_SQL.remove();
+        }
+    }
+
+    /**
+     * Called by {@link SqlStatementInspector} as each statement is prepared.
+     */
+    static void statement(String sql) {
+        LAST_SQL.set(sql);
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes != null) {
+            for (SqlScope scope : scopes) {
+                scope.statement(sql);
+            }
+        }
+    }
+
+    /**
+     * Called by {@link SqlTimingSessionListener} after each statement or batch executes.
+     */
+    static void executed(long nanos) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes != null) {
+            for (SqlScope scope : scopes) {
+                scope.executed(nanos);
+            }
+        }
+
+        if (nanos >= slowStatementNanos) {
+            slowStatementListener.run();
+            log.warn("Slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), abbreviate(LAST_SQL.get()));
+        }
+    }
+
+    static String abbreviate(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+}
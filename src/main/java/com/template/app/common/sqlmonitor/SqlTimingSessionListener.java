@@ -0,0 +1,33 @@
+package com.template.app.common.sqlmonitor;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * Times JDBC statement execution, including batched inserts and updates, which Hibernate reports
+ * as one batch execution per flush of the batch. Hibernate creates one instance per session, and
+ * a session is only used by one thread at a time.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStartedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementRecorder.executed(System.nanoTime() - executeStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementRecorder.executed(System.nanoTime() - executeStartedAt);
+    }
+}
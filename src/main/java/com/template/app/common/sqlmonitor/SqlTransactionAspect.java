@@ -0,0 +1,51 @@
+package com.template.app.common.sqlmonitor;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a {@link SqlScope} around each {@code @Transactional} method, reported as {@code "<Class>.<method>"}.
+ * Ordered ahead of the transaction interceptor so statements flushed at commit are included; a method that
+ * throws is not reported, so the budget check never masks the original exception. Spring Data repositories
+ * are excluded ({@code SimpleJpaRepository} is itself {@code @Transactional}); their statements count towards
+ * the enclosing scope.
+ * <p>
+ * Being outside the transaction, a budget failure is raised after commit; see
+ * {@link SqlMonitorProperties#isFailOnBudgetExceeded()}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlTransactionAspect {
+
+    private final SqlMonitorProperties properties;
+    private final SqlScopeReporter reporter;
+
+    @Around("(@annotation(org.springframework.transaction.annotation.Transactional) "
+            + "|| @within(org.springframework.transaction.annotation.Transactional)) "
+            + "&& !within(org.springframework.data.repository.Repository+)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isEnabled() || !properties.isTrackTransactions()) {
+            return joinPoint.proceed();
+        }
+
+        SqlScope scope = SqlStatementRecorder.begin();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            SqlStatementRecorder.end(scope);
+        }
+
+        reporter.report(SqlScopeReporter.SCOPE_TRANSACTION,
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName(),
+                scope);
+        return result;
+    }
+}
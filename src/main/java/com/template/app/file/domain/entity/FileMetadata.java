@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class FileMetadata {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_metadata_id_seq")
+    @SequenceGenerator(name = "file_metadata_id_seq", sequenceName = "file_metadata_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "original_filename", nullable = false, length = 500)
@@ -0,0 +1,60 @@
+package com.template.app.notification.api.controller;
+
+import com.template.app.common.dto.ApiResponse;
+import com.template.app.notification.api.dto.PushCampaignRequest;
+import com.template.app.notification.domain.PushCampaignProgress;
+import com.template.app.notification.domain.PushMessage;
+import com.template.app.notification.service.PushFanoutService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Starts bulk push campaigns and reports on them.
+ * Progress is shared through Redis, but a campaign can only be cancelled on the node running it.
+ */
+@RestController
+@RequestMapping("/api/v1/notifications/push/campaigns")
+@RequiredArgsConstructor
+@ConditionalOnBean(PushFanoutService.class)
+@Tag(name = "Push Campaign", description = "Bulk push notification APIs (Admin only)")
+@PreAuthorize("hasRole('ADMIN')")
+public class PushCampaignController {
+
+    private final PushFanoutService pushFanoutService;
+
+    @PostMapping
+    @Operation(summary = "Start a push campaign to every device or to a set of users")
+    public ResponseEntity<ApiResponse<String>> startCampaign(@Valid @RequestBody PushCampaignRequest request) {
+        PushMessage message = new PushMessage(request.getTitle(), request.getBody(), request.getData());
+        String campaignId = request.isBroadcast()
+                ? pushFanoutService.broadcast(message)
+                : pushFanoutService.sendToUsers(request.getUserIds(), message);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(campaignId, "Campaign started"));
+    }
+
+    @GetMapping("/{campaignId}")
+    @Operation(summary = "Get campaign progress")
+    public ResponseEntity<ApiResponse<PushCampaignProgress>> getProgress(@PathVariable String campaignId) {
+        return pushFanoutService.getProgress(campaignId)
+                .map(progress -> ResponseEntity.ok(ApiResponse.success(progress)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.failure("Campaign not found", "CAMPAIGN_NOT_FOUND")));
+    }
+
+    @DeleteMapping("/{campaignId}")
+    @Operation(summary = "Cancel a campaign running on this node")
+    public ResponseEntity<ApiResponse<Void>> cancel(@PathVariable String campaignId) {
+        if (!pushFanoutService.cancel(campaignId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.failure("Campaign is not running on this node", "CAMPAIGN_NOT_RUNNING"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Campaign will stop after its current page"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.template.app.notification.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request DTO for starting a bulk push campaign.
+ * Either {@code broadcast} is set or {@code userIds} lists the recipients, never both, so an empty
+ * recipient list cannot turn into a message to every device.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushCampaignRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    private String title;
+
+    @NotBlank(message = "Body is required")
+    @Size(max = 2000, message = "Body must not exceed 2000 characters")
+    private String body;
+
+    /**
+     * Additional data payload (optional)
+     */
+    private Map<String, String> data;
+
+    /**
+     * Send to every enabled device
+     */
+    private boolean broadcast;
+
+    /**
+     * Send to the enabled devices of these users
+     */
+    private List<Long> userIds;
+
+    @JsonIgnore
+    @AssertTrue(message = "Set either broadcast or a non-empty userIds list")
+    public boolean isTargetValid() {
+        return broadcast == (userIds == null || userIds.isEmpty());
+    }
+}
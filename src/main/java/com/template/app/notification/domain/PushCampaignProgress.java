@@ -0,0 +1,31 @@
+package com.template.app.notification.domain;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a bulk push campaign.
+ *
+ * @param campaignId Campaign id returned when the campaign was started
+ * @param status     RUNNING, COMPLETED, CANCELLED or FAILED
+ * @param total      Enabled tokens targeted when the campaign started
+ * @param sent       Messages accepted by SNS
+ * @param failed     Messages that failed and were handed to the DLQ
+ * @param disabled   Tokens disabled because their SNS endpoint was disabled
+ * @param startedAt  Start time
+ * @param finishedAt End time, null while running
+ */
+public record PushCampaignProgress(
+        String campaignId,
+        String status,
+        long total,
+        long sent,
+        long failed,
+        long disabled,
+        Instant startedAt,
+        Instant finishedAt
+) {
+
+    public long processed() {
+        return sent + failed + disabled;
+    }
+}
@@ -0,0 +1,21 @@
+package com.template.app.notification.domain;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content of a push notification, independent of the target device.
+ * Used as a cache key for rendered platform payloads, so the data map is copied to an unmodifiable one
+ * (null values allowed, as callers have always been able to pass them).
+ *
+ * @param title Notification title
+ * @param body  Notification body
+ * @param data  Additional data payload, empty when none
+ */
+public record PushMessage(String title, String body, Map<String, String> data) {
+
+    public PushMessage {
+        data = data == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(data));
+    }
+}
@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 public class EmailLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_logs_id_seq")
+    @SequenceGenerator(name = "email_logs_id_seq", sequenceName = "email_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "recipient_email", nullable = false, length = 255)
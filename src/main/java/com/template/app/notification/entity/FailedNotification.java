@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class FailedNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "failed_notifications_id_seq")
+    @SequenceGenerator(name = "failed_notifications_id_seq", sequenceName = "failed_notifications_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
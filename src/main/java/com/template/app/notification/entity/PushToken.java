@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class PushToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "push_tokens_id_seq")
+    @SequenceGenerator(name = "push_tokens_id_seq", sequenceName = "push_tokens_id_seq", allocationSize = 50)
     private Long id;
 
     /**
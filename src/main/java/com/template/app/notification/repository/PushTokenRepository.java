@@ -1,9 +1,15 @@
 package com.template.app.notification.repository;
 
 import com.template.app.notification.entity.PushToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +28,32 @@ public interface PushTokenRepository extends JpaRepository<PushToken, Long> {
      * Find a token by device token string
      */
     Optional<PushToken> findByDeviceToken(String deviceToken);
+
+    long countByEnabledTrue();
+
+    long countByUserIdInAndEnabledTrue(Collection<Long> userIds);
+
+    /**
+     * Next page of enabled tokens after a cursor id, for broadcast fan-out (keyset on the primary key).
+     */
+    @Query("SELECT t FROM PushToken t WHERE t.enabled = true AND t.id > :afterId ORDER BY t.id")
+    List<PushToken> findEnabledAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Next page of enabled tokens for a set of users, for targeted fan-out.
+     */
+    @Query("SELECT t FROM PushToken t WHERE t.enabled = true AND t.userId IN :userIds AND t.id > :afterId ORDER BY t.id")
+    List<PushToken> findEnabledByUserIdsAfter(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Disable tokens whose SNS endpoints were reported disabled, in one statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PushToken t SET t.enabled = false, t.updatedAt = LOCAL_DATETIME WHERE t.id IN :ids")
+    int disableByIds(@Param("ids") Collection<Long> ids);
 }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,6 +41,33 @@ public class DeadLetterQueueService {
      */
     @Transactional
     public void addToQueue(String type, Long userId, String address, String content, String error) {
+        repository.save(newFailedNotification(type, userId, address, content, error));
+        log.warn("Added failed {} notification to DLQ for user {}: {}", type, userId, error);
+    }
+
+    /**
+     * Add failed notifications sharing one type and content in a single transaction, for bulk sends.
+     *
+     * @param type       Notification type (EMAIL, SMS, PUSH)
+     * @param content    Message content
+     * @param recipients Recipients the notification could not be delivered to
+     */
+    @Transactional
+    public void addAllToQueue(String type, String content, List<FailedRecipient> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        List<FailedNotification> failed = new ArrayList<>(recipients.size());
+        for (FailedRecipient recipient : recipients) {
+            failed.add(newFailedNotification(type, recipient.userId(), recipient.address(), content, recipient.error()));
+        }
+
+        repository.saveAll(failed);
+        log.warn("Added {} failed {} notifications to DLQ", failed.size(), type);
+    }
+
+    private FailedNotification newFailedNotification(String type, Long userId, String address, String content, String error) {
         FailedNotification failed = new FailedNotification();
         failed.setNotificationType(type);
         failed.setRecipientUserId(userId);
@@ -48,9 +76,7 @@ public class DeadLetterQueueService {
         failed.setErrorMessage(error);
         failed.setStatus("PENDING");
         failed.setNextRetryAt(calculateNextRetry(0));
-
-        repository.save(failed);
-        log.warn("Added failed {} notification to DLQ for user {}: {}", type, userId, error);
+        return failed;
     }
 
     /**
@@ -238,4 +264,10 @@ public class DeadLetterQueueService {
             return pending + failed + succeeded + retrying;
         }
     }
+
+    /**
+     * A recipient of a bulk send that could not be delivered to.
+     */
+    public record FailedRecipient(Long userId, String address, String error) {
+    }
 }
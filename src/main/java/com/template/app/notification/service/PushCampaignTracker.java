@@ -0,0 +1,105 @@
+package com.template.app.notification.service;
+
+import com.template.app.notification.domain.PushCampaignProgress;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps bulk push campaign progress in a Redis hash, so any node can report on a campaign
+ * running on another. Counters are incremented once per page of tokens, not per message.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PushCampaignTracker {
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_CANCELLED = "CANCELLED";
+    static final String STATUS_FAILED = "FAILED";
+
+    private static final String KEY_PREFIX = "push:campaign:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${aws.sns.fanout.progress-ttl:604800000}") // 7 days default
+    private long progressTtlMillis;
+
+    public void start(String campaignId, long total) {
+        String key = KEY_PREFIX + campaignId;
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "status", STATUS_RUNNING,
+                "total", String.valueOf(total),
+                "sent", "0",
+                "failed", "0",
+                "disabled", "0",
+                "startedAt", String.valueOf(System.currentTimeMillis())
+        ));
+        redisTemplate.expire(key, Duration.ofMillis(progressTtlMillis));
+    }
+
+    public void record(String campaignId, long sent, long failed, long disabled) {
+        String key = KEY_PREFIX + campaignId;
+        try {
+            if (sent > 0) {
+                redisTemplate.opsForHash().increment(key, "sent", sent);
+            }
+            if (failed > 0) {
+                redisTemplate.opsForHash().increment(key, "failed", failed);
+            }
+            if (disabled > 0) {
+                redisTemplate.opsForHash().increment(key, "disabled", disabled);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record progress for push campaign {}: {}", campaignId, e.getMessage());
+        }
+    }
+
+    public void finish(String campaignId, String status) {
+        String key = KEY_PREFIX + campaignId;
+        try {
+            redisTemplate.opsForHash().putAll(key, Map.of(
+                    "status", status,
+                    "finishedAt", String.valueOf(System.currentTimeMillis())
+            ));
+        } catch (Exception e) {
+            log.warn("Failed to record completion of push campaign {}: {}", campaignId, e.getMessage());
+        }
+    }
+
+    public Optional<PushCampaignProgress> get(String campaignId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(KEY_PREFIX + campaignId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new PushCampaignProgress(
+                campaignId,
+                (String) fields.get("status"),
+                longField(fields, "total"),
+                longField(fields, "sent"),
+                longField(fields, "failed"),
+                longField(fields, "disabled"),
+                instantField(fields, "startedAt"),
+                instantField(fields, "finishedAt")
+        ));
+    }
+
+    private static long longField(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Long.parseLong((String) value) : 0L;
+    }
+
+    private static Instant instantField(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Instant.ofEpochMilli(Long.parseLong((String) value)) : null;
+    }
+}
@@ -0,0 +1,366 @@
+package com.template.app.notification.service;
+
+import com.template.app.notification.domain.PushCampaignProgress;
+import com.template.app.notification.domain.PushMessage;
+import com.template.app.notification.entity.PushToken;
+import com.template.app.notification.repository.PushTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.CreatePlatformEndpointRequest;
+import software.amazon.awssdk.services.sns.model.CreatePlatformEndpointResponse;
+import software.amazon.awssdk.services.sns.model.EndpointDisabledException;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bulk push fan-out: sends one message to every enabled device, or to the devices of a set of users.
+ * <p>
+ * Tokens are read in keyset pages, the platform payload is rendered once per platform, and publishes
+ * go through {@link SnsAsyncClient} with at most {@code aws.sns.fanout.max-in-flight} requests
+ * outstanding. After each page, newly created endpoint ARNs are stored column-only in one UPDATE, disabled
+ * tokens are switched off in one UPDATE and failures go to the DLQ in one transaction. Progress is kept by
+ * {@link PushCampaignTracker}.
+ * <p>
+ * Campaigns run on a dedicated pool of {@code aws.sns.fanout.max-concurrent-campaigns} threads, never on
+ * the shared {@code applicationTaskExecutor} used by {@code @Async} sends and MVC async handling.
+ * <p>
+ * For single-user pushes use {@link PushNotificationService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnBean(SnsAsyncClient.class)
+public class PushFanoutService {
+
+    private static final int USER_ID_CHUNK_SIZE = 1000;
+
+    /**
+     * Stores the endpoints created for one page; a token that already has one (re-registered or
+     * updated concurrently) keeps it.
+     */
+    private static final String STORE_ENDPOINTS_SQL =
+            "UPDATE push_tokens t SET endpoint_arn = v.endpoint_arn, updated_at = LOCALTIMESTAMP " +
+                    "FROM unnest(?::bigint[], ?::varchar[]) AS v(id, endpoint_arn) " +
+                    "WHERE t.id = v.id AND (t.endpoint_arn IS NULL OR t.endpoint_arn = '')";
+
+    private final SnsAsyncClient snsAsyncClient;
+    private final PushTokenRepository pushTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PushPayloadRenderer payloadRenderer;
+    private final PushCampaignTracker campaignTracker;
+    private final MeterRegistry meterRegistry;
+    private DeadLetterQueueService dlqService; // Lazy injection to avoid circular dependency
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+
+    @Value("${aws.sns.fanout.batch-size:500}")
+    private int batchSize;
+
+    @Value("${aws.sns.fanout.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Value("${aws.sns.fanout.max-concurrent-campaigns:2}")
+    private int maxConcurrentCampaigns;
+
+    @Value("${aws.sns.fanout.queue-capacity:10}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor campaignExecutor;
+
+    @Value("${aws.sns.platform-application-arn.android:}")
+    private String androidPlatformArn;
+
+    @Value("${aws.sns.platform-application-arn.ios:}")
+    private String iosPlatformArn;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        campaignExecutor = new ThreadPoolExecutor(
+                maxConcurrentCampaigns, maxConcurrentCampaigns, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "push-fanout-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Running campaigns are interrupted and end as CANCELLED; queued ones never start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        campaignExecutor.shutdownNow();
+    }
+
+    @Autowired(required = false)
+    public void setDlqService(DeadLetterQueueService dlqService) {
+        this.dlqService = dlqService;
+    }
+
+    /**
+     * Send a message to every enabled device.
+     *
+     * @return campaign id for {@link #getProgress(String)} and {@link #cancel(String)}
+     */
+    public String broadcast(PushMessage message) {
+        return start(message, List.<TokenSource>of(pushTokenRepository::findEnabledAfter),
+                pushTokenRepository::countByEnabledTrue);
+    }
+
+    /**
+     * Send a message to every enabled device of the given users.
+     *
+     * @return campaign id for {@link #getProgress(String)} and {@link #cancel(String)}
+     */
+    public String sendToUsers(Collection<Long> userIds, PushMessage message) {
+        List<Long> ids = List.copyOf(userIds);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += USER_ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + USER_ID_CHUNK_SIZE, ids.size())));
+        }
+
+        List<TokenSource> sources = chunks.stream()
+                .<TokenSource>map(chunk ->
+                        (afterId, pageable) -> pushTokenRepository.findEnabledByUserIdsAfter(chunk, afterId, pageable))
+                .toList();
+
+        return start(message, sources,
+                () -> chunks.stream().mapToLong(pushTokenRepository::countByUserIdInAndEnabledTrue).sum());
+    }
+
+    public Optional<PushCampaignProgress> getProgress(String campaignId) {
+        return campaignTracker.get(campaignId);
+    }
+
+    /**
+     * Stop a campaign running on this node after its current page.
+     *
+     * @return false if the campaign is not running here
+     */
+    public boolean cancel(String campaignId) {
+        if (!running.contains(campaignId)) {
+            return false;
+        }
+        cancelled.add(campaignId);
+        return true;
+    }
+
+    private String start(PushMessage message,
+                         List<TokenSource> sources,
+                         LongSupplier total) {
+        String campaignId = UUID.randomUUID().toString();
+        campaignTracker.start(campaignId, total.getAsLong());
+        running.add(campaignId);
+        log.info("Starting push campaign {}: '{}'", campaignId, message.title());
+
+        try {
+            campaignExecutor.execute(() -> run(campaignId, message, sources));
+        } catch (RejectedExecutionException e) {
+            running.remove(campaignId);
+            campaignTracker.finish(campaignId, PushCampaignTracker.STATUS_FAILED);
+            throw e;
+        }
+        return campaignId;
+    }
+
+    private void run(String campaignId, PushMessage message,
+                     List<TokenSource> sources) {
+        Semaphore permits = new Semaphore(maxInFlight);
+        Pageable page = PageRequest.of(0, batchSize);
+        String status = PushCampaignTracker.STATUS_COMPLETED;
+
+        try {
+            sourceLoop:
+            for (TokenSource source : sources) {
+                long afterId = 0L;
+                while (true) {
+                    if (cancelled.contains(campaignId)) {
+                        status = PushCampaignTracker.STATUS_CANCELLED;
+                        break sourceLoop;
+                    }
+
+                    List<PushToken> tokens = source.nextPage(afterId, page);
+                    if (tokens.isEmpty()) {
+                        break;
+                    }
+                    afterId = tokens.get(tokens.size() - 1).getId();
+
+                    PageResult result = publishPage(message, tokens, permits);
+                    result.persist(campaignId, message);
+
+                    if (result.sent.get() == 0 && result.failed.get() == tokens.size()) {
+                        // Nothing got through: SNS is unavailable or misconfigured, stop rather than fill the DLQ
+                        log.error("Push campaign {} aborted: every publish in a page of {} failed", campaignId, tokens.size());
+                        status = PushCampaignTracker.STATUS_FAILED;
+                        break sourceLoop;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = PushCampaignTracker.STATUS_CANCELLED;
+        } catch (Exception e) {
+            log.error("Push campaign {} failed", campaignId, e);
+            status = PushCampaignTracker.STATUS_FAILED;
+        } finally {
+            running.remove(campaignId);
+            cancelled.remove(campaignId);
+            campaignTracker.finish(campaignId, status);
+        }
+
+        log.info("Push campaign {} finished: {}", campaignId, status);
+    }
+
+    /**
+     * Publish to every token of a page, keeping at most {@code maxInFlight} requests outstanding,
+     * and wait for the page to complete.
+     */
+    private PageResult publishPage(PushMessage message, List<PushToken> tokens, Semaphore permits)
+            throws InterruptedException {
+        PageResult result = new PageResult();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tokens.size());
+
+        for (PushToken token : tokens) {
+            permits.acquire();
+            CompletableFuture<Void> future = endpointFor(token, result)
+                    .thenCompose(endpointArn -> snsAsyncClient.publish(PublishRequest.builder()
+                            .targetArn(endpointArn)
+                            .message(payloadRenderer.render(token.getPlatform(), message))
+                            .messageStructure("json")
+                            .build()))
+                    .handle((response, error) -> {
+                        permits.release();
+                        result.record(token, error);
+                        return null;
+                    });
+            futures.add(future);
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return result;
+    }
+
+    private CompletableFuture<String> endpointFor(PushToken token, PageResult result) {
+        if (token.getEndpointArn() != null && !token.getEndpointArn().isEmpty()) {
+            return CompletableFuture.completedFuture(token.getEndpointArn());
+        }
+
+        String platformArn = PushPayloadRenderer.PLATFORM_ANDROID.equals(token.getPlatform()) ? androidPlatformArn : iosPlatformArn;
+        if (platformArn == null || platformArn.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Platform ARN not configured for " + token.getPlatform()));
+        }
+
+        return snsAsyncClient.createPlatformEndpoint(CreatePlatformEndpointRequest.builder()
+                        .platformApplicationArn(platformArn)
+                        .token(token.getDeviceToken())
+                        .build())
+                .thenApply(CreatePlatformEndpointResponse::endpointArn)
+                .thenApply(endpointArn -> {
+                    token.setEndpointArn(endpointArn);
+                    result.createdEndpoints.add(token);
+                    return endpointArn;
+                });
+    }
+
+    /**
+     * Outcome of one page, filled in from SDK callback threads and persisted by the campaign thread
+     * once every publish of the page has completed.
+     */
+    private class PageResult {
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Queue<PushToken> createdEndpoints = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> disabledTokenIds = new ConcurrentLinkedQueue<>();
+        private final Queue<DeadLetterQueueService.FailedRecipient> failures = new ConcurrentLinkedQueue<>();
+
+        void record(PushToken token, Throwable error) {
+            if (error == null) {
+                sent.incrementAndGet();
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof EndpointDisabledException) {
+                disabledTokenIds.add(token.getId());
+            } else {
+                failed.incrementAndGet();
+                failures.add(new DeadLetterQueueService.FailedRecipient(
+                        token.getUserId(), token.getDeviceToken(), cause.getMessage()));
+            }
+        }
+
+        void persist(String campaignId, PushMessage message) {
+            if (!createdEndpoints.isEmpty()) {
+                storeEndpoints(List.copyOf(createdEndpoints));
+            }
+            if (!disabledTokenIds.isEmpty()) {
+                pushTokenRepository.disableByIds(disabledTokenIds);
+            }
+            if (dlqService != null && !failures.isEmpty()) {
+                dlqService.addAllToQueue("PUSH", message.title() + ": " + message.body(), List.copyOf(failures));
+            }
+
+            campaignTracker.record(campaignId, sent.get(), failed.get(), disabledTokenIds.size());
+            counter("sent").increment(sent.get());
+            counter("failed").increment(failed.get());
+            counter("disabled").increment(disabledTokenIds.size());
+        }
+    }
+
+    private void storeEndpoints(List<PushToken> tokens) {
+        Long[] ids = tokens.stream().map(PushToken::getId).toArray(Long[]::new);
+        String[] endpointArns = tokens.stream().map(PushToken::getEndpointArn).toArray(String[]::new);
+        jdbcTemplate.update(STORE_ENDPOINTS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", endpointArns));
+        });
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("push.fanout.messages")
+                .description("Bulk push messages by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface TokenSource {
+        List<PushToken> nextPage(Long afterId, Pageable pageable);
+    }
+}
@@ -1,8 +1,8 @@
 package com.template.app.notification.service;
 
+import com.template.app.notification.domain.PushMessage;
 import com.template.app.notification.entity.PushToken;
 import com.template.app.notification.repository.PushTokenRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,7 +27,7 @@ public class PushNotificationService {
 
     private final SnsClient snsClient;
     private final PushTokenRepository pushTokenRepository;
-    private final ObjectMapper objectMapper;
+    private final PushPayloadRenderer payloadRenderer;
     private DeadLetterQueueService dlqService; // Lazy injection to avoid circular dependency
 
     @Value("${aws.sns.enabled:false}")
@@ -72,9 +71,11 @@ public class PushNotificationService {
 
         log.info("Sending push notification to {} devices for user {}", tokens.size(), userId);
 
+        PushMessage pushMessage = new PushMessage(title, message, data);
+
         for (PushToken token : tokens) {
             try {
-                sendToDevice(token, title, message, data);
+                sendToDevice(token, pushMessage);
             } catch (Exception e) {
                 log.error("Failed to send push to token {} (user {})", token.getId(), userId, e);
 
@@ -92,20 +93,13 @@ public class PushNotificationService {
     /**
      * Send push notification to a specific device.
      */
-    private void sendToDevice(PushToken token, String title, String message, Map<String, String> data) {
+    private void sendToDevice(PushToken token, PushMessage pushMessage) {
         try {
             // Get or create SNS endpoint ARN for this device
             String endpointArn = getOrCreateEndpoint(token);
 
-            // Create platform-specific message
-            Map<String, Object> notification = new HashMap<>();
-            notification.put("title", title);
-            notification.put("body", message);
-            if (data != null && !data.isEmpty()) {
-                notification.put("data", data);
-            }
-
-            String messageJson = createPlatformMessage(token.getPlatform(), notification);
+            // Platform-specific payload, rendered once per platform and message
+            String messageJson = payloadRenderer.render(token.getPlatform(), pushMessage);
 
             // Publish to SNS
             PublishRequest publishRequest = PublishRequest.builder()
@@ -174,60 +168,6 @@ public class PushNotificationService {
         }
     }
 
-    /**
-     * Create platform-specific message payload.
-     * Different formats for Android (GCM) and iOS (APNS).
-     */
-    private String createPlatformMessage(String platform, Map<String, Object> notification) {
-        try {
-            Map<String, String> messages = new HashMap<>();
-
-            if (platform.equals("ANDROID")) {
-                // GCM/FCM format
-                Map<String, Object> gcmMessage = new HashMap<>();
-                gcmMessage.put("notification", notification);
-                gcmMessage.put("priority", "high");
-
-                // Wrap in data payload for GCM
-                Map<String, Object> gcmData = new HashMap<>();
-                gcmData.put("data", gcmMessage);
-
-                messages.put("GCM", objectMapper.writeValueAsString(gcmData));
-
-            } else {
-                // APNS format
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("title", notification.get("title"));
-                alert.put("body", notification.get("body"));
-
-                Map<String, Object> aps = new HashMap<>();
-                aps.put("alert", alert);
-                aps.put("sound", "default");
-
-                Map<String, Object> apnsMessage = new HashMap<>();
-                apnsMessage.put("aps", aps);
-
-                // Add custom data if present
-                if (notification.containsKey("data")) {
-                    apnsMessage.put("data", notification.get("data"));
-                }
-
-                messages.put("APNS", objectMapper.writeValueAsString(apnsMessage));
-                // Also add APNS_SANDBOX for development
-                messages.put("APNS_SANDBOX", objectMapper.writeValueAsString(apnsMessage));
-            }
-
-            // Add default message for other platforms
-            messages.put("default", notification.get("body").toString());
-
-            return objectMapper.writeValueAsString(messages);
-
-        } catch (Exception e) {
-            log.error("Failed to create platform message", e);
-            throw new RuntimeException("Failed to create platform message", e);
-        }
-    }
-
     /**
      * Fallback method when circuit breaker is open.
      */
@@ -0,0 +1,88 @@
+package com.template.app.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.template.app.notification.domain.PushMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Renders the SNS {@code messageStructure=json} payload for a platform.
+ * <p>
+ * The payload depends only on the platform and the message, so it is rendered once and reused for
+ * every device of that platform, instead of being rebuilt for each token.
+ */
+@Component
+public class PushPayloadRenderer {
+
+    static final String PLATFORM_ANDROID = "ANDROID";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<PayloadKey, String> payloads;
+
+    public PushPayloadRenderer(ObjectMapper objectMapper,
+                               @Value("${aws.sns.payload-cache.maximum-size:1000}") long maximumSize,
+                               @Value("${aws.sns.payload-cache.ttl:3600000}") long ttlMillis) {
+        this.objectMapper = objectMapper;
+        this.payloads = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    public String render(String platform, PushMessage message) {
+        return payloads.get(new PayloadKey(platform, message), this::renderUncached);
+    }
+
+    private String renderUncached(PayloadKey key) {
+        PushMessage message = key.message();
+        ObjectNode envelope = objectMapper.createObjectNode();
+
+        try {
+            if (PLATFORM_ANDROID.equals(key.platform())) {
+                // GCM/FCM format, wrapped in a data payload
+                ObjectNode gcm = objectMapper.createObjectNode();
+                ObjectNode gcmMessage = gcm.putObject("data");
+                ObjectNode notification = gcmMessage.putObject("notification");
+                notification.put("title", message.title());
+                notification.put("body", message.body());
+                if (!message.data().isEmpty()) {
+                    notification.set("data", objectMapper.valueToTree(message.data()));
+                }
+                gcmMessage.put("priority", "high");
+
+                envelope.put("GCM", objectMapper.writeValueAsString(gcm));
+            } else {
+                // APNS format; the same document serves the sandbox for development builds
+                ObjectNode apns = objectMapper.createObjectNode();
+                ObjectNode aps = apns.putObject("aps");
+                ObjectNode alert = aps.putObject("alert");
+                alert.put("title", message.title());
+                alert.put("body", message.body());
+                aps.put("sound", "default");
+                if (!message.data().isEmpty()) {
+                    apns.set("data", objectMapper.valueToTree(message.data()));
+                }
+
+                String apnsJson = objectMapper.writeValueAsString(apns);
+                envelope.put("APNS", apnsJson);
+                envelope.put("APNS_SANDBOX", apnsJson);
+            }
+
+            // Default message for other platforms
+            envelope.put("default", message.body());
+
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to create platform message", e);
+        }
+    }
+
+    private record PayloadKey(String platform, PushMessage message) {
+    }
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class SchedulerJobHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduler_job_history_id_seq")
+    @SequenceGenerator(name = "scheduler_job_history_id_seq", sequenceName = "scheduler_job_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "job_name", nullable = false, length = 200)
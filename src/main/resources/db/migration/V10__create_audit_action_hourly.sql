@@ -0,0 +1,15 @@
+-- Per-action, per-hour audit counters maintained by the application (see AuditActionRollupService)
+CREATE TABLE audit_action_hourly (
+    action VARCHAR(20) NOT NULL,
+    hour_start TIMESTAMP NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (action, hour_start)
+);
+
+-- Backfill from existing audit rows
+INSERT INTO audit_action_hourly (action, hour_start, count)
+SELECT action, date_trunc('hour', created_at), COUNT(*)
+FROM audit_logs
+GROUP BY action, date_trunc('hour', created_at);
+
+COMMENT ON TABLE audit_action_hourly IS 'Hourly audit action counts for stats without scanning audit_logs';
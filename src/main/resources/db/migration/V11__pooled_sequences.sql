@@ -0,0 +1,10 @@
+-- Let Hibernate allocate ids in blocks of 50 (pooled optimizer) for the remaining entities, as V6 did
+-- for audit_logs, so inserts no longer need a round trip per row and can be sent as JDBC batches.
+-- The next value handed out is past every existing id, so no id is reused.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE email_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE push_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE failed_notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE file_metadata_id_seq INCREMENT BY 50;
+ALTER SEQUENCE scheduler_job_history_id_seq INCREMENT BY 50;
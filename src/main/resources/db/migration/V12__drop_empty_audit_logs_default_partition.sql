@@ -0,0 +1,13 @@
+-- DETACH PARTITION ... CONCURRENTLY, used by retention, is refused while a default partition exists.
+-- The default partition is only a safety net and partitions are created months ahead, so drop it when empty.
+-- If it holds rows they need a proper monthly partition first; retention then falls back to a plain DETACH.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM audit_logs_default) THEN
+        DROP TABLE audit_logs_default;
+    ELSE
+        RAISE NOTICE 'audit_logs_default is not empty; keeping it';
+    END IF;
+END;
+$$;
@@ -0,0 +1,2 @@
+-- Let Hibernate allocate audit_logs ids in blocks of 50 (pooled optimizer) so inserts can be batched
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
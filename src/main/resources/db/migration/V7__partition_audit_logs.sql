@@ -0,0 +1,80 @@
+-- Convert audit_logs to a table range-partitioned by month on created_at.
+-- Retention becomes DROP of whole partitions, and created_at predicates prune partitions.
+--
+-- MAINTENANCE WINDOW REQUIRED. The whole script runs in one transaction: the rename takes an
+-- ACCESS EXCLUSIVE lock on audit_logs, and the INSERT ... SELECT below copies the entire legacy
+-- table before that lock is released. Audit writes and searches block for the duration of the copy,
+-- which grows with the table (expect minutes per ten million rows). Stop the application, or at
+-- least the audit writers, before migrating a large table.
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER TABLE audit_logs_legacy RENAME CONSTRAINT audit_logs_pkey TO audit_logs_legacy_pkey;
+DROP INDEX idx_audit_logs_entity;
+DROP INDEX idx_audit_logs_actor;
+DROP INDEX idx_audit_logs_action;
+DROP INDEX idx_audit_logs_created_at;
+
+-- Keep the id sequence (and its INCREMENT BY 50) when the legacy table is dropped
+ALTER SEQUENCE audit_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+    action VARCHAR(20) NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id BIGINT,
+    actor_id BIGINT,
+    actor_type VARCHAR(50),
+    actor_ip VARCHAR(50),
+    actor_user_agent VARCHAR(500),
+    old_value TEXT,
+    new_value TEXT,
+    changed_fields VARCHAR(1000),
+    description VARCHAR(500),
+    request_path VARCHAR(500),
+    request_method VARCHAR(10),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+
+-- Created on the parent, propagated to every partition
+CREATE INDEX idx_audit_logs_entity ON audit_logs(entity_type, entity_id);
+CREATE INDEX idx_audit_logs_actor ON audit_logs(actor_id);
+CREATE INDEX idx_audit_logs_action ON audit_logs(action);
+CREATE INDEX idx_audit_logs_created_at ON audit_logs(created_at);
+
+-- Safety net for rows outside any monthly partition; expected to stay empty
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- Create the monthly partition containing the given date (audit_logs_pYYYYMM), if missing
+CREATE OR REPLACE FUNCTION create_audit_logs_partition(month_date DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month_date)::DATE;
+    partition_name TEXT := 'audit_logs_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, (month_start + INTERVAL '1 month')::DATE
+    );
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for existing rows and the next three months
+DO $$
+DECLARE
+    month_cursor DATE;
+BEGIN
+    month_cursor := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM audit_logs_legacy), CURRENT_DATE))::DATE;
+    WHILE month_cursor <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_audit_logs_partition(month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO audit_logs SELECT * FROM audit_logs_legacy;
+DROP TABLE audit_logs_legacy;
+
+COMMENT ON TABLE audit_logs IS 'Audit trail for all entity changes and user actions, partitioned monthly by created_at';
@@ -0,0 +1,3 @@
+-- Keyset pagination orders by (created_at DESC, id DESC); one index serves both the order and the seek predicate
+CREATE INDEX idx_audit_logs_created_at_id ON audit_logs(created_at, id);
+DROP INDEX idx_audit_logs_created_at;
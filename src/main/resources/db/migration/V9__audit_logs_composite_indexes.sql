@@ -0,0 +1,9 @@
+-- Composite indexes matching the audit access paths: an equality filter followed by the
+-- (created_at, id) ordering used for paging. Each replaces a single-column index it is a superset of.
+CREATE INDEX idx_audit_logs_actor_created ON audit_logs(actor_id, created_at, id);
+CREATE INDEX idx_audit_logs_entity_created ON audit_logs(entity_type, entity_id, created_at, id);
+CREATE INDEX idx_audit_logs_action_created ON audit_logs(action, created_at, id);
+
+DROP INDEX idx_audit_logs_actor;
+DROP INDEX idx_audit_logs_entity;
+DROP INDEX idx_audit_logs_action;
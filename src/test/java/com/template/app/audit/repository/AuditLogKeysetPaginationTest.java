@@ -0,0 +1,109 @@
+package com.template.app.audit.repository;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.service.AuditCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks keyset pages over rows that share {@code created_at}, where only the id orders them.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AuditLogKeysetPaginationTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+    private static final LocalDateTime SINCE = CREATED_AT.minusDays(1);
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private List<Long> expected;
+
+    @BeforeEach
+    void setUp() {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            logs.add(log(1L, CREATED_AT));
+        }
+        logs.add(log(1L, CREATED_AT.minusMinutes(1)));
+        logs.add(log(1L, CREATED_AT.minusMinutes(1)));
+        logs.add(log(2L, CREATED_AT));
+        auditLogRepository.saveAllAndFlush(logs);
+
+        expected = logs.stream()
+                .filter(row -> row.getActorId() == 1L)
+                .sorted(Comparator.comparing(AuditLog::getCreatedAt).thenComparing(AuditLog::getId).reversed())
+                .map(AuditLog::getId)
+                .toList();
+    }
+
+    @Test
+    void actorPagesVisitTiedRowsExactlyOnce() {
+        List<Long> visited = walk(cursor -> auditLogRepository.findByActorIdBefore(
+                1L, SINCE, cursor.createdAt(), cursor.id(), PageRequest.of(0, PAGE_SIZE + 1)));
+
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void searchPagesVisitTiedRowsExactlyOnce() {
+        List<Long> visited = walk(cursor -> auditLogRepository.findNewest(
+                AuditLogSpecifications.search(null, null, 1L, SINCE, null)
+                        .and(AuditLogSpecifications.before(cursor.createdAt(), cursor.id())),
+                PAGE_SIZE + 1));
+
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void cursorInsideTiedRowsResumesAfterIt() {
+        AuditCursor cursor = new AuditCursor(CREATED_AT, expected.get(1));
+
+        List<AuditLog> rows = auditLogRepository.findByActorIdBefore(
+                1L, SINCE, cursor.createdAt(), cursor.id(), PageRequest.of(0, 100));
+
+        assertThat(rows).extracting(AuditLog::getId).containsExactlyElementsOf(expected.subList(2, expected.size()));
+    }
+
+    /**
+     * Follow cursors the way the service does, round-tripping each one through its token form.
+     */
+    private static List<Long> walk(Function<AuditCursor, List<AuditLog>> fetch) {
+        List<Long> visited = new ArrayList<>();
+        AuditCursor cursor = AuditCursor.first(CREATED_AT.plusSeconds(1));
+        while (true) {
+            List<AuditLog> rows = fetch.apply(cursor);
+            List<AuditLog> page = rows.subList(0, Math.min(PAGE_SIZE, rows.size()));
+            page.forEach(row -> visited.add(row.getId()));
+            if (rows.size() <= PAGE_SIZE) {
+                return visited;
+            }
+            AuditLog last = page.get(PAGE_SIZE - 1);
+            cursor = AuditCursor.decode(new AuditCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+    }
+
+    private static AuditLog log(Long actorId, LocalDateTime createdAt) {
+        return AuditLog.builder()
+                .action(AuditLog.AuditAction.UPDATE)
+                .entityType("User")
+                .entityId(1L)
+                .actorId(actorId)
+                .createdAt(createdAt)
+                .build();
+    }
+}
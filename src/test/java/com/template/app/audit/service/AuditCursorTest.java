@@ -0,0 +1,72 @@
+package com.template.app.audit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditCursorTest {
+
+    @Test
+    void roundTripKeepsNanosecondPrecision() {
+        AuditCursor cursor = new AuditCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 45, 123_456_789), 42L);
+
+        assertThat(AuditCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripWithWholeMinute() {
+        // LocalDateTime.toString drops zero seconds, so the encoded form has no seconds field
+        AuditCursor cursor = new AuditCursor(LocalDateTime.of(2024, 3, 1, 12, 30), 7L);
+
+        assertThat(AuditCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new AuditCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 45, 999_999_999), Long.MAX_VALUE).encode();
+
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void firstPageStartsBeforeEveryRowAtTheBound() {
+        LocalDateTime bound = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        assertThat(AuditCursor.first(bound)).isEqualTo(new AuditCursor(bound, Long.MAX_VALUE));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not base64!", "@@@@"})
+    void malformedTokenIsRejected(String token) {
+        assertThatThrownBy(() -> AuditCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-03-01T12:30", "|42", "2024-03-01T12:30|", "2024-03-01T12:30|abc",
+            "yesterday|42", "2024-13-01T12:30|42", "2024-03-01T12:30|99999999999999999999"})
+    void tamperedPayloadIsRejected(String payload) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> AuditCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void truncatedTokenIsRejected() {
+        String token = new AuditCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 45), 42L).encode();
+
+        assertThatThrownBy(() -> AuditCursor.decode(token.substring(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
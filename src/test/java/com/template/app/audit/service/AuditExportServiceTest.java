@@ -0,0 +1,86 @@
+package com.template.app.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:audit-export;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE audit_logs (id BIGINT, action VARCHAR(50), entity_type VARCHAR(100), "
+                + "entity_id BIGINT, actor_id BIGINT, actor_type VARCHAR(50), actor_ip VARCHAR(50), "
+                + "actor_user_agent VARCHAR(500), old_value VARCHAR(1000), new_value VARCHAR(1000), "
+                + "changed_fields VARCHAR(500), description VARCHAR(500), request_path VARCHAR(500), "
+                + "request_method VARCHAR(10), created_at TIMESTAMP)");
+        exportService = new AuditExportService(dataSource, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper(), 100, 1, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE audit_logs");
+        exportService.shutdown();
+    }
+
+    @Test
+    void csvNeutralizesCellsThatSpreadsheetsReadAsFormulas() throws Exception {
+        insert(1L, "=HYPERLINK(\"http://evil\",\"x\")", "+1+1", "-2+3", "@SUM(A1)", "\tcmd", "/api/v1/users");
+
+        List<String> lines = exportCsv();
+
+        assertThat(lines.get(1))
+                .contains("\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\"")
+                .contains("\"'+1+1\"")
+                .contains("\"'-2+3\"")
+                .contains("\"'@SUM(A1)\"")
+                .contains("\"'\tcmd\"")
+                .contains(",/api/v1/users,");
+    }
+
+    @Test
+    void csvWritesNumbersAndPlainTextUnchanged() throws Exception {
+        jdbcTemplate.update("INSERT INTO audit_logs (id, action, entity_type, entity_id, actor_id, description, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", 7L, "UPDATE", "User", -5L, 42L, "Changed a, b", Timestamp.valueOf(CREATED_AT));
+
+        List<String> lines = exportCsv();
+
+        assertThat(lines.get(1)).startsWith("7,UPDATE,User,-5,42,")
+                .contains(",\"Changed a, b\",")
+                .endsWith("," + CREATED_AT);
+    }
+
+    private void insert(long id, String userAgent, String oldValue, String newValue, String description,
+                        String changedFields, String requestPath) {
+        jdbcTemplate.update("INSERT INTO audit_logs (id, action, entity_type, entity_id, actor_id, actor_user_agent, "
+                        + "old_value, new_value, changed_fields, description, request_path, created_at) "
+                        + "VALUES (?, 'UPDATE', 'User', 1, 1, ?, ?, ?, ?, ?, ?, ?)",
+                id, userAgent, oldValue, newValue, changedFields, description, requestPath, Timestamp.valueOf(CREATED_AT));
+    }
+
+    private List<String> exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(null, null, null, CREATED_AT.minusDays(1), CREATED_AT.plusDays(1),
+                AuditExportService.Format.CSV, out);
+        return List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+    }
+}
@@ -0,0 +1,214 @@
+package com.template.app.audit.service;
+
+import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private AuditLogRepository auditLogRepository;
+    private AuditActionRollupService rollupService;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogWriter writer;
+
+    // Rows the repository accepted, with the thread that wrote them
+    private final List<AuditLog> saved = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> savingThreads = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        auditLogRepository = mock(AuditLogRepository.class);
+        rollupService = mock(AuditActionRollupService.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        writer = new AuditLogWriter(auditLogRepository, rollupService, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+        ReflectionTestUtils.setField(writer, "bufferSize", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 50L);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(writer, "retryAttempts", 3);
+        ReflectionTestUtils.setField(writer, "retryBackoffMs", 50L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 5000L);
+    }
+
+    @Test
+    void failedBatchIsRetriedWithBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> idsOnEntry = Collections.synchronizedList(new ArrayList<>());
+        when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> rows = invocation.getArgument(0);
+            rows.forEach(row -> idsOnEntry.add(row.getId()));
+            // Ids are assigned before the insert fails, as with a pooled sequence
+            rows.forEach(row -> row.setId(1L));
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("connection reset");
+            }
+            saved.addAll(rows);
+            return rows;
+        });
+        AuditLog row = row();
+
+        // Not started: the row is written inline, which makes the retry loop run on this thread
+        long start = System.nanoTime();
+        writer.write(row);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        verify(auditLogRepository, times(3)).saveAll(anyList());
+        assertThat(saved).containsExactly(row);
+        // 50 ms, then 100 ms
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(150);
+        // Ids from a rolled-back attempt never leak into the retry
+        assertThat(idsOnEntry).containsOnlyNulls();
+        verify(rollupService).record(List.of(row));
+        assertThat(failedRows()).isZero();
+    }
+
+    @Test
+    void batchThatKeepsFailingIsWrittenRowByRow() {
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        AuditLog bad = row();
+        when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> rows = invocation.getArgument(0);
+            if (rows.size() > 1 || rows.contains(bad)) {
+                throw new IllegalStateException("value too long");
+            }
+            saved.addAll(rows);
+            return rows;
+        });
+        AuditLog first = row();
+        AuditLog last = row();
+
+        writer.start();
+        writer.write(first);
+        writer.write(bad);
+        writer.write(last);
+        writer.shutdown();
+
+        assertThat(saved).containsExactly(first, last);
+        assertThat(failedRows()).isEqualTo(1.0);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLog>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(rollupService).record(recorded.capture());
+        assertThat(recorded.getValue()).containsExactly(first, last);
+    }
+
+    @Test
+    void callerWritesInlineWhenBufferIsFull() throws InterruptedException {
+        ReflectionTestUtils.setField(writer, "bufferSize", 1);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("audit-writer") && writerBusy.getCount() > 0) {
+                writerBusy.countDown();
+                assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            List<AuditLog> rows = invocation.getArgument(0);
+            saved.addAll(rows);
+            rows.forEach(row -> savingThreads.add(Thread.currentThread().getName()));
+            return rows;
+        });
+        AuditLog held = row();
+        AuditLog queued = row();
+        AuditLog overflow = row();
+
+        writer.start();
+        writer.write(held);
+        assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.write(queued);
+        writer.write(overflow);
+
+        // The writer thread is stuck and the buffer holds one row, so the third was written by the caller
+        assertThat(saved).containsExactly(overflow);
+        assertThat(savingThreads).containsExactly(Thread.currentThread().getName());
+
+        release.countDown();
+        writer.shutdown();
+        assertThat(saved).containsExactlyInAnyOrder(overflow, held, queued);
+    }
+
+    @Test
+    void shutdownDrainsQueuedRows() {
+        ReflectionTestUtils.setField(writer, "batchSize", 2);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 200L);
+        when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> rows = invocation.getArgument(0);
+            saved.addAll(rows);
+            return rows;
+        });
+        List<AuditLog> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            rows.add(row());
+        }
+
+        writer.start();
+        rows.forEach(writer::write);
+        writer.shutdown();
+
+        // Every row is written by the time shutdown returns, in batches of at most two
+        assertThat(saved).containsExactlyInAnyOrderElementsOf(rows);
+        verify(auditLogRepository, atLeast(4)).saveAll(anyList());
+    }
+
+    @Test
+    void rowsWrittenAfterShutdownGoStraightToTheDatabase() {
+        when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> rows = invocation.getArgument(0);
+            saved.addAll(rows);
+            return rows;
+        });
+        writer.start();
+        writer.shutdown();
+
+        AuditLog late = row();
+        writer.write(late);
+
+        assertThat(saved).containsExactly(late);
+    }
+
+    private double failedRows() {
+        return meterRegistry.get("audit.writer.failed").counter().count();
+    }
+
+    private static AuditLog row() {
+        return AuditLog.builder()
+                .action(AuditLog.AuditAction.UPDATE)
+                .entityType("User")
+                .entityId(1L)
+                .actorId(1L)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
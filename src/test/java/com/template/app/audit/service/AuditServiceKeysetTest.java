@@ -0,0 +1,104 @@
+package com.template.app.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.app.audit.api.dto.AuditLogSlice;
+import com.template.app.audit.domain.entity.AuditLog;
+import com.template.app.audit.repository.AuditLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuditServiceKeysetTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        auditLogRepository = mock(AuditLogRepository.class);
+        auditService = new AuditService(auditLogRepository, mock(AuditLogWriter.class),
+                mock(AuditPartitionService.class), mock(AuditActionRollupService.class), new ObjectMapper());
+    }
+
+    @Test
+    void fullPageCarriesCursorOfItsLastRow() {
+        // Three rows for a page of two: the extra row only signals that more exist
+        when(auditLogRepository.findByActorIdBefore(eq(1L), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(rows(30, 20, 10));
+
+        AuditLogSlice slice = auditService.getLogsByActor(1L, null, 2);
+
+        assertThat(slice.content()).extracting(AuditLog::getId).containsExactly(30L, 20L);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(AuditCursor.decode(slice.nextCursor())).isEqualTo(new AuditCursor(CREATED_AT, 20L));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(auditLogRepository.findByActorIdBefore(eq(1L), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(rows(30, 20));
+
+        AuditLogSlice slice = auditService.getLogsByActor(1L, null, 2);
+
+        assertThat(slice.content()).hasSize(2);
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(slice.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorPositionIsPassedToTheQuery() {
+        AuditCursor position = new AuditCursor(CREATED_AT, 20L);
+        when(auditLogRepository.findByActorIdBefore(eq(1L), any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        auditService.getLogsByActor(1L, position.encode(), 2);
+
+        verify(auditLogRepository).findByActorIdBefore(eq(1L), any(), eq(CREATED_AT), eq(20L), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchFetchesOneExtraRow() {
+        when(auditLogRepository.findNewest(any(Specification.class), anyInt())).thenReturn(rows(30, 20, 10));
+
+        AuditLogSlice slice = auditService.searchLogs(null, null, null, null, null, null, 2);
+
+        verify(auditLogRepository).findNewest(any(Specification.class), eq(3));
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(AuditCursor.decode(slice.nextCursor()).id()).isEqualTo(20L);
+    }
+
+    @Test
+    void malformedCursorIsRejectedBeforeQuerying() {
+        assertThatThrownBy(() -> auditService.getLogsByActor(1L, "not a cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> auditService.searchLogs(null, null, null, null, null, "not a cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    private static List<AuditLog> rows(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> AuditLog.builder().id(id).createdAt(CREATED_AT).build())
+                .toList();
+    }
+}
@@ -0,0 +1,214 @@
+package com.template.app.auth.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtKeyServiceTest {
+
+    private static final String KEY_PREFIX = "jwt:jwk:";
+    private static final String KEY_IDS = "jwt:jwk-ids";
+
+    // Stand in for the published keys and the key id index in Redis
+    private final Map<String, String> publishedKeys = new ConcurrentHashMap<>();
+    private final Set<String> publishedIds = ConcurrentHashMap.newKeySet();
+
+    private ValueOperations<String, String> valueOps;
+    private SetOperations<String, String> setOps;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        valueOps = mock(ValueOperations.class);
+        setOps = mock(SetOperations.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(60_000L);
+
+        doAnswer(invocation -> {
+            publishedKeys.put(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(valueOps).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        when(valueOps.get(anyString())).thenAnswer(invocation -> publishedKeys.get(invocation.<String>getArgument(0)));
+        when(setOps.add(eq(KEY_IDS), any())).thenAnswer(invocation -> {
+            publishedIds.add(invocation.getArgument(1));
+            return 1L;
+        });
+        when(setOps.members(KEY_IDS)).thenAnswer(invocation -> new HashSet<>(publishedIds));
+    }
+
+    @Test
+    void unknownKidIsLookedUpOnceWhileIndexRefreshIsThrottled() {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+
+        // First miss reloads the index; the kid is not in it
+        assertThat(service.findVerificationKey("made-up-1")).isNull();
+        verify(setOps, times(1)).members(KEY_IDS);
+
+        // Within the refresh interval the kid is looked up alone, once
+        assertThat(service.findVerificationKey("made-up-2")).isNull();
+        assertThat(service.findVerificationKey("made-up-2")).isNull();
+        verify(valueOps, times(1)).get(KEY_PREFIX + "made-up-2");
+        verify(setOps, times(1)).members(KEY_IDS);
+    }
+
+    @Test
+    void keyPublishedByPeerAfterRefreshIsFoundWithoutWaitingForNextRefresh() {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+        service.findVerificationKey("made-up");
+
+        // A peer restarts and signs with its new key right after this node reloaded the index
+        KeyPair peer = Jwts.SIG.ES256.keyPair().build();
+        publish("peer-kid", peer);
+
+        assertThat(service.findVerificationKey("peer-kid").getEncoded()).isEqualTo(peer.getPublic().getEncoded());
+        // Now held locally
+        assertThat(service.findVerificationKey("peer-kid")).isNotNull();
+        verify(valueOps, times(1)).get(KEY_PREFIX + "peer-kid");
+    }
+
+    @Test
+    void indexRefreshLoadsEveryPublishedKey() {
+        KeyPair peer = Jwts.SIG.ES256.keyPair().build();
+        publish("peer-kid", peer);
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+
+        assertThat(service.findVerificationKey("peer-kid").getEncoded()).isEqualTo(peer.getPublic().getEncoded());
+        verify(setOps, times(1)).members(KEY_IDS);
+    }
+
+    @Test
+    void ownKeyIsPublishedBeforeItSigns() {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+
+        String kid = service.getCurrentSigningKey().kid();
+        assertThat(publishedIds).containsExactly(kid);
+        assertThat(publishedKeys).containsKey(KEY_PREFIX + kid);
+        assertThat(service.findVerificationKey(kid)).isNotNull();
+    }
+
+    @Test
+    void rotationPublishesNextKeyAheadOfSigningWithIt() throws InterruptedException {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+        ReflectionTestUtils.setField(service, "rotationInterval", 200L);
+        ReflectionTestUtils.setField(service, "publishLead", 100L);
+        String initialKid = service.getCurrentSigningKey().kid();
+
+        Thread.sleep(120);
+        service.rotateIfDue();
+
+        // Published, but the current key keeps signing for the publish lead
+        assertThat(publishedIds).hasSize(2);
+        assertThat(service.getCurrentSigningKey().kid()).isEqualTo(initialKid);
+        service.rotateIfDue();
+        assertThat(service.getCurrentSigningKey().kid()).isEqualTo(initialKid);
+
+        Thread.sleep(120);
+        service.rotateIfDue();
+
+        String nextKid = service.getCurrentSigningKey().kid();
+        assertThat(nextKid).isNotEqualTo(initialKid);
+        assertThat(publishedIds).contains(nextKid);
+        // Tokens signed with the previous key still verify
+        assertThat(service.findVerificationKey(initialKid)).isNotNull();
+    }
+
+    @Test
+    void keyThatFailedToPublishIsNeverPromoted() throws InterruptedException {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+        ReflectionTestUtils.setField(service, "rotationInterval", 200L);
+        ReflectionTestUtils.setField(service, "publishLead", 0L);
+        String initialKid = service.getCurrentSigningKey().kid();
+
+        doThrow(new IllegalStateException("Redis down"))
+                .when(valueOps).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        Thread.sleep(220);
+        service.rotateIfDue();
+        service.rotateIfDue();
+
+        assertThat(service.getCurrentSigningKey().kid()).isEqualTo(initialKid);
+        assertThat(publishedIds).containsExactly(initialKid);
+    }
+
+    @Test
+    void hmacIsAlwaysAcceptedInHmacMode() {
+        JwtKeyService service = service(JwtKeyService.MODE_HMAC, "");
+
+        assertThat(service.acceptsHmac()).isTrue();
+        assertThat(service.getHmacAcceptUntil()).isNull();
+    }
+
+    @Test
+    void hmacIsRejectedInEs256ModeWithoutMigrationWindow() {
+        JwtKeyService service = service(JwtKeyService.MODE_ES256, "");
+
+        assertThat(service.acceptsHmac()).isFalse();
+    }
+
+    @Test
+    void hmacIsAcceptedOnlyUntilEndOfMigrationWindow() {
+        Instant future = Instant.now().plus(1, ChronoUnit.DAYS);
+        assertThat(service(JwtKeyService.MODE_ES256, future.toString()).acceptsHmac()).isTrue();
+
+        Instant past = Instant.now().minus(1, ChronoUnit.MINUTES);
+        JwtKeyService ended = service(JwtKeyService.MODE_ES256, past.toString());
+        assertThat(ended.acceptsHmac()).isFalse();
+        assertThat(ended.getHmacAcceptUntil()).isEqualTo(past);
+    }
+
+    @Test
+    void unsupportedSigningModeFailsStartup() {
+        JwtKeyService service = new JwtKeyService(redisTemplate);
+        ReflectionTestUtils.setField(service, "signingMode", "RS256");
+        ReflectionTestUtils.setField(service, "hmacAcceptUntilValue", "");
+
+        assertThatThrownBy(service::init).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void publish(String kid, KeyPair keyPair) {
+        publishedKeys.put(KEY_PREFIX + kid, Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        publishedIds.add(kid);
+    }
+
+    private JwtKeyService service(String mode, String hmacAcceptUntil) {
+        JwtKeyService service = new JwtKeyService(redisTemplate);
+        ReflectionTestUtils.setField(service, "signingMode", mode);
+        ReflectionTestUtils.setField(service, "rotationInterval", 86_400_000L);
+        ReflectionTestUtils.setField(service, "refreshTokenValidity", 1_209_600_000L);
+        ReflectionTestUtils.setField(service, "jwksCacheSeconds", 300L);
+        ReflectionTestUtils.setField(service, "publishLead", -1L);
+        ReflectionTestUtils.setField(service, "keyIdsRefreshInterval", 30_000L);
+        ReflectionTestUtils.setField(service, "hmacAcceptUntilValue", hmacAcceptUntil);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,175 @@
+package com.template.app.auth.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenBlacklistServiceTest {
+
+    private static final String CHANNEL = "token-blacklist";
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOps;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+    }
+
+    @Test
+    void revocationIsVisibleLocallyAndWrittenToRedis() {
+        TokenBlacklistService service = service(1000);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        service.revoke("jti-1", expiresAt);
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        verify(valueOps).set(eq("blacklist:jti-1"), eq(String.valueOf(expiresAt)), anyLong(), eq(TimeUnit.MILLISECONDS));
+        // Nothing has overflowed, so the answer came from the local replica
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void revocationReachesPeersThroughTheChannel() {
+        TokenBlacklistService node = service(1000);
+        TokenBlacklistService peer = service(1000);
+
+        node.revoke("jti-1", System.currentTimeMillis() + 60_000);
+
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+        assertThat(peer.isRevoked("jti-1")).isFalse();
+
+        peer.onMessage(message(published.getValue()), null);
+
+        assertThat(peer.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void malformedMessagesAreIgnored() {
+        TokenBlacklistService service = service(1000);
+
+        service.onMessage(message("no-separator"), null);
+        service.onMessage(message("jti-1:not-a-number"), null);
+
+        assertThat(service.isRevoked("no-separator")).isFalse();
+        assertThat(service.isRevoked("jti-1")).isFalse();
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotRevoked() {
+        TokenBlacklistService service = service(1000);
+
+        service.revoke("jti-1", System.currentTimeMillis() - 1);
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void entriesExpireAtTheTokensExpiry() throws InterruptedException {
+        TokenBlacklistService service = service(1000);
+
+        service.revoke("jti-1", System.currentTimeMillis() + 100);
+        assertThat(service.isRevoked("jti-1")).isTrue();
+
+        Thread.sleep(200);
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resyncLoadsEntriesAndSkipsUnparseableValues() {
+        TokenBlacklistService service = service(1000);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, true, true, false);
+        when(cursor.next()).thenReturn("blacklist:jti-1", "blacklist:jti-2", "blacklist:garbage", "blacklist:gone");
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(valueOps.multiGet(anyList())).thenReturn(
+                Arrays.asList(String.valueOf(expiresAt), String.valueOf(expiresAt), "not-a-number", null));
+
+        service.resync();
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(service.isRevoked("jti-2")).isTrue();
+        assertThat(service.isRevoked("garbage")).isFalse();
+        assertThat(service.isRevoked("gone")).isFalse();
+        verify(valueOps).multiGet(List.of("blacklist:jti-1", "blacklist:jti-2", "blacklist:garbage", "blacklist:gone"));
+        verify(cursor).close();
+    }
+
+    @Test
+    void resyncFailureKeepsTheLocalReplica() {
+        TokenBlacklistService service = service(1000);
+        service.revoke("jti-1", System.currentTimeMillis() + 60_000);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenThrow(new IllegalStateException("Redis down"));
+
+        service.resync();
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void localMissFallsBackToRedisAfterOverflow() {
+        TokenBlacklistService service = service(2);
+        when(redisTemplate.hasKey("blacklist:elsewhere")).thenReturn(true);
+
+        assertThat(service.isRevoked("elsewhere")).isFalse();
+        verify(redisTemplate, never()).hasKey(anyString());
+
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 10; i++) {
+            service.revoke("jti-" + i, expiresAt);
+        }
+        revokedCache(service).cleanUp();
+
+        assertThat(service.isRevoked("elsewhere")).isTrue();
+        verify(redisTemplate).hasKey("blacklist:elsewhere");
+    }
+
+    private TokenBlacklistService service(long localMaximumSize) {
+        TokenBlacklistService service = new TokenBlacklistService(redisTemplate, mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(service, "localMaximumSize", localMaximumSize);
+        service.init();
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, Long> revokedCache(TokenBlacklistService service) {
+        return (Cache<String, Long>) ReflectionTestUtils.getField(service, "revoked");
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
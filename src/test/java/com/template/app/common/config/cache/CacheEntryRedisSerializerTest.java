@@ -0,0 +1,54 @@
+package com.template.app.common.config.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheEntryRedisSerializerTest {
+
+    private final RedisSerializer<Object> delegate = new JdkSerializationRedisSerializer();
+    private final CacheEntryRedisSerializer serializer = new CacheEntryRedisSerializer(delegate);
+
+    @Test
+    void entryRoundTripKeepsFreshnessStamp() {
+        CacheEntry entry = new CacheEntry("value", 1_700_000_000_000L, 42);
+
+        byte[] stored = serializer.serialize(entry);
+
+        assertThat(stored[0]).isEqualTo((byte) 0xFE);
+        assertThat(serializer.deserialize(stored)).isEqualTo(entry);
+    }
+
+    @Test
+    void plainValueIsStoredWithoutHeader() {
+        byte[] stored = serializer.serialize("plain");
+
+        assertThat(stored).isEqualTo(delegate.serialize("plain"));
+        assertThat(serializer.deserialize(stored)).isEqualTo("plain");
+    }
+
+    @Test
+    void valueWrittenBeforeFreshnessTrackingIsReadAsPlainValue() {
+        assertThat(serializer.deserialize(delegate.serialize("legacy"))).isEqualTo("legacy");
+    }
+
+    @Test
+    void shortLegacyValueIsNotMistakenForHeader() {
+        RedisSerializer<Object> cbor = Lz4RedisSerializerTest.cborIntegers();
+
+        assertThat(new CacheEntryRedisSerializer(cbor).deserialize(cbor.serialize(7))).isEqualTo(7);
+    }
+
+    @Test
+    void entryRoundTripsThroughCompression() {
+        CacheEntryRedisSerializer compressed = new CacheEntryRedisSerializer(new Lz4RedisSerializer(delegate, 256));
+        CacheEntry entry = new CacheEntry("repeated ".repeat(1_000), 1_700_000_000_000L, 42);
+
+        byte[] stored = compressed.serialize(entry);
+
+        assertThat(stored.length).isLessThan(delegate.serialize(entry.value()).length);
+        assertThat(compressed.deserialize(stored)).isEqualTo(entry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.template.app.common.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Lz4RedisSerializerTest {
+
+    private static final int THRESHOLD = 256;
+
+    private final RedisSerializer<Object> delegate = new JdkSerializationRedisSerializer();
+    private final Lz4RedisSerializer serializer = new Lz4RedisSerializer(delegate, THRESHOLD);
+
+    @Test
+    void smallValueIsStoredRaw() {
+        byte[] stored = serializer.serialize("small");
+
+        assertThat(stored[0]).isEqualTo((byte) 0x1C);
+        assertThat(serializer.deserialize(stored)).isEqualTo("small");
+    }
+
+    @Test
+    void largeValueIsCompressed() {
+        String value = "repeated ".repeat(1_000);
+
+        byte[] stored = serializer.serialize(value);
+
+        assertThat(stored[0]).isEqualTo((byte) 0x1D);
+        assertThat(stored.length).isLessThan(delegate.serialize(value).length);
+        assertThat(serializer.deserialize(stored)).isEqualTo(value);
+    }
+
+    @Test
+    void incompressibleValueIsStoredRaw() {
+        byte[] random = new byte[4_096];
+        new Random(42).nextBytes(random);
+
+        byte[] stored = serializer.serialize(random);
+
+        assertThat(stored[0]).isEqualTo((byte) 0x1C);
+        assertThat((byte[]) serializer.deserialize(stored)).isEqualTo(random);
+    }
+
+    @Test
+    void valueWrittenBeforeCompressionIsReadUnchanged() {
+        assertThat(serializer.deserialize(delegate.serialize("legacy"))).isEqualTo("legacy");
+    }
+
+    @Test
+    void legacyCborSmallIntegersAreNotMistakenForHeaders() {
+        RedisSerializer<Object> cbor = cborIntegers();
+        Lz4RedisSerializer cborSerializer = new Lz4RedisSerializer(cbor, THRESHOLD);
+
+        // CBOR encodes 0 and 1 as the single bytes 0x00 and 0x01
+        assertThat(cborSerializer.deserialize(cbor.serialize(0))).isEqualTo(0);
+        assertThat(cborSerializer.deserialize(cbor.serialize(1))).isEqualTo(1);
+        assertThat(cborSerializer.deserialize(cborSerializer.serialize(1))).isEqualTo(1);
+    }
+
+    @Test
+    void forgedLengthIsRejectedBeforeAllocating() {
+        byte[] forged = {0x1D, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2, 3};
+
+        assertThatThrownBy(() -> serializer.deserialize(forged))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Invalid LZ4 cache value length");
+    }
+
+    @Test
+    void negativeLengthIsRejected() {
+        byte[] forged = {0x1D, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 1, 2, 3};
+
+        assertThatThrownBy(() -> serializer.deserialize(forged)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void truncatedValueIsRejected() {
+        byte[] stored = serializer.serialize("repeated ".repeat(1_000));
+
+        assertThatThrownBy(() -> serializer.deserialize(Arrays.copyOf(stored, 3)))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Truncated");
+        assertThatThrownBy(() -> serializer.deserialize(Arrays.copyOf(stored, stored.length / 2)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void corruptedPayloadIsRejected() {
+        byte[] stored = serializer.serialize("repeated ".repeat(1_000));
+        for (int i = 5; i < stored.length; i++) {
+            stored[i] = (byte) 0xFF;
+        }
+
+        assertThatThrownBy(() -> serializer.deserialize(stored)).isInstanceOf(SerializationException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static RedisSerializer<Object> cborIntegers() {
+        RedisSerializer<?> cbor = new Jackson2JsonRedisSerializer<>(new ObjectMapper(new CBORFactory()), Integer.class);
+        return (RedisSerializer<Object>) cbor;
+    }
+}
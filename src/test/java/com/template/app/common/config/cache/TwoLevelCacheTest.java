@@ -0,0 +1,183 @@
+package com.template.app.common.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.template.app.scheduler.service.DistributedLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final String KEY = "key";
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder().build();
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("test");
+    private final DistributedLockService lockService = mock(DistributedLockService.class);
+    private final List<Runnable> queuedRefreshes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(lockService.tryLock(anyString(), any(Duration.class))).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        TwoLevelCache cache = cache(policy(0), Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get(KEY, () -> {
+                    loads.incrementAndGet();
+                    loaderEntered.countDown();
+                    release.await();
+                    return "loaded";
+                })));
+            }
+            assertThat(loaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(remote.get(KEY).get()).isInstanceOf(CacheEntry.class);
+    }
+
+    @Test
+    void staleValueIsServedWhileOneRefreshRuns() {
+        TwoLevelCache cache = cache(policy(0), queuedRefreshes::add);
+        local.put(KEY, new CacheEntry("stale", System.currentTimeMillis() - 1_000, 10));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(KEY, () -> "fresh-" + loads.incrementAndGet())).isEqualTo("stale");
+        assertThat(cache.get(KEY, () -> "fresh-" + loads.incrementAndGet())).isEqualTo("stale");
+        assertThat(queuedRefreshes).hasSize(1);
+        assertThat(loads.get()).isZero();
+
+        queuedRefreshes.get(0).run();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.get(KEY, () -> "unused")).isEqualTo("fresh-1");
+    }
+
+    @Test
+    void valuePastStaleWindowIsReloadedInline() {
+        TwoLevelCache cache = cache(policy(0), queuedRefreshes::add);
+        local.put(KEY, new CacheEntry("expired", System.currentTimeMillis() - 120_000, 10));
+
+        assertThat(cache.get(KEY, () -> "reloaded")).isEqualTo("reloaded");
+        assertThat(queuedRefreshes).isEmpty();
+    }
+
+    @Test
+    void plainLookupIgnoresStaleValue() {
+        TwoLevelCache cache = cache(policy(0), queuedRefreshes::add);
+        local.put(KEY, new CacheEntry("stale", System.currentTimeMillis() - 1_000, 10));
+
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    void expensiveValueNearExpiryIsRefreshedEarly() {
+        TwoLevelCache cache = cache(policy(1.0), queuedRefreshes::add);
+        // A loader this slow makes the XFetch gap exceed the remaining freshness on every draw
+        local.put(KEY, new CacheEntry("current", System.currentTimeMillis() + 50, Integer.MAX_VALUE));
+
+        assertThat(cache.get(KEY, () -> "refreshed")).isEqualTo("current");
+        assertThat(queuedRefreshes).hasSize(1);
+    }
+
+    @Test
+    void earlyRefreshIsDisabledWithoutBeta() {
+        TwoLevelCache cache = cache(policy(0), queuedRefreshes::add);
+        local.put(KEY, new CacheEntry("current", System.currentTimeMillis() + 50, Integer.MAX_VALUE));
+
+        assertThat(cache.get(KEY, () -> "refreshed")).isEqualTo("current");
+        assertThat(queuedRefreshes).isEmpty();
+    }
+
+    @Test
+    void backgroundRefreshRunsWithCallerContext() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TwoLevelCache cache = cache(policy(0), executor);
+            local.put(KEY, new CacheEntry("stale", System.currentTimeMillis() - 1_000, 10));
+
+            Authentication caller = new TestingAuthenticationToken("user", "n/a", "ROLE_USER");
+            SecurityContextHolder.getContext().setAuthentication(caller);
+            MDC.put("traceId", "trace-1");
+
+            AtomicReference<Authentication> seenAuthentication = new AtomicReference<>();
+            AtomicReference<String> seenTraceId = new AtomicReference<>();
+            CountDownLatch loaded = new CountDownLatch(1);
+            cache.get(KEY, () -> {
+                seenAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+                seenTraceId.set(MDC.get("traceId"));
+                loaded.countDown();
+                return "fresh";
+            });
+
+            assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(seenAuthentication.get()).isSameAs(caller);
+            assertThat(seenTraceId.get()).isEqualTo("trace-1");
+
+            // The worker thread does not keep the caller's context afterwards
+            Future<Object[]> leftover = executor.submit(() ->
+                    new Object[]{SecurityContextHolder.getContext().getAuthentication(), MDC.get("traceId")});
+            assertThat(leftover.get(5, TimeUnit.SECONDS)).containsOnlyNulls();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TwoLevelCache cache(TwoLevelCache.LoadPolicy loadPolicy, Executor refreshExecutor) {
+        return new TwoLevelCache("test", local, remote, mock(CacheInvalidationPublisher.class), loadPolicy,
+                lockService, refreshExecutor, new CacheMeters(new SimpleMeterRegistry(), "test"));
+    }
+
+    private static TwoLevelCache.LoadPolicy policy(double earlyRefreshBeta) {
+        return new TwoLevelCache.LoadPolicy(true, 60_000, 60_000, earlyRefreshBeta,
+                Duration.ofSeconds(5), Duration.ofSeconds(1));
+    }
+}
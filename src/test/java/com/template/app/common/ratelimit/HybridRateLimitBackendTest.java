@@ -0,0 +1,204 @@
+package com.template.app.common.ratelimit;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HybridRateLimitBackendTest {
+
+    private static final RateLimitPolicy POLICY = RateLimitPolicy.of("test", List.of("/**"), 100, 100,
+            Duration.ofHours(1), RateLimitPolicy.KeyStrategy.IP, RateLimitPolicy.Backend.HYBRID);
+
+    private BucketProxy bucket;
+    private long remoteTokens;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bucket = mock(BucketProxy.class);
+        // Stands in for the Redis bucket: atomically takes n tokens if available
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenAnswer(invocation -> {
+            long requested = invocation.getArgument(0);
+            synchronized (this) {
+                if (remoteTokens >= requested) {
+                    remoteTokens -= requested;
+                    return ConsumptionProbe.consumed(remoteTokens, 0);
+                }
+                return ConsumptionProbe.rejected(remoteTokens, TimeUnit.SECONDS.toNanos(1), 0);
+            }
+        });
+        doAnswer(invocation -> {
+            long returned = invocation.getArgument(0);
+            synchronized (this) {
+                remoteTokens += returned;
+            }
+            return null;
+        }).when(bucket).addTokens(anyLong());
+    }
+
+    @Test
+    void servesReservedBatchLocally() {
+        remoteTokens = 100;
+        HybridRateLimitBackend backend = backend(10, Duration.ofMinutes(1));
+
+        RateLimitDecision first = backend.tryConsume("client", POLICY);
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remainingTokens()).isEqualTo(99);
+
+        for (int i = 0; i < 9; i++) {
+            assertThat(backend.tryConsume("client", POLICY).allowed()).isTrue();
+        }
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(anyLong());
+        assertThat(remoteTokens).isEqualTo(90);
+
+        backend.tryConsume("client", POLICY);
+        verify(bucket, times(2)).tryConsumeAndReturnRemaining(anyLong());
+        assertThat(remoteTokens).isEqualTo(80);
+    }
+
+    @Test
+    void batchIsCappedAtTenthOfCapacity() {
+        remoteTokens = 100;
+        HybridRateLimitBackend backend = backend(50, Duration.ofMinutes(1));
+
+        backend.tryConsume("client", POLICY);
+
+        assertThat(remoteTokens).isEqualTo(90);
+    }
+
+    @Test
+    void takesPartialBatchWhenRemoteIsNearlyEmpty() {
+        remoteTokens = 3;
+        HybridRateLimitBackend backend = backend(10, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryConsume("client", POLICY).allowed()).isTrue();
+        }
+        assertThat(remoteTokens).isZero();
+        // Rejected full batch, then the partial batch of 3
+        verify(bucket, times(2)).tryConsumeAndReturnRemaining(anyLong());
+
+        RateLimitDecision rejected = backend.tryConsume("client", POLICY);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.nanosToWaitForRefill()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // An empty bucket is rejected in one round trip
+        verify(bucket, times(3)).tryConsumeAndReturnRemaining(anyLong());
+    }
+
+    @Test
+    void expiredReservationReturnsLeftoverTokens() throws InterruptedException {
+        remoteTokens = 100;
+        HybridRateLimitBackend backend = backend(10, Duration.ofMillis(20));
+
+        backend.tryConsume("client", POLICY);
+        awaitRemoteTokens(99);
+        verify(bucket).addTokens(9);
+
+        // A client sending one request per lease is charged one token per request
+        backend.tryConsume("client", POLICY);
+        awaitRemoteTokens(98);
+        verify(bucket, times(2)).tryConsumeAndReturnRemaining(anyLong());
+    }
+
+    @Test
+    void reservationUsedUpReturnsNothing() throws InterruptedException {
+        remoteTokens = 100;
+        HybridRateLimitBackend backend = backend(10, Duration.ofMillis(20));
+
+        for (int i = 0; i < 10; i++) {
+            backend.tryConsume("client", POLICY);
+        }
+        Thread.sleep(100);
+
+        assertThat(remoteTokens).isEqualTo(90);
+        verify(bucket, never()).addTokens(anyLong());
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedRemoteLimit() throws Exception {
+        remoteTokens = 1000;
+        HybridRateLimitBackend backend = backend(10, Duration.ofMinutes(1));
+
+        int threads = 8;
+        int attemptsPerThread = 250;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (backend.tryConsume("shared", POLICY).allowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Reserved tokens may go unused, but never more than the remote bucket handed out are granted
+        assertThat(allowed.get()).isPositive().isLessThanOrEqualTo(1000);
+    }
+
+    /**
+     * Leases are returned on Caffeine's executor once they expire.
+     */
+    private void awaitRemoteTokens(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (this) {
+                if (remoteTokens == expected) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        synchronized (this) {
+            assertThat(remoteTokens).isEqualTo(expected);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HybridRateLimitBackend backend(long batchSize, Duration leaseDuration) {
+        ProxyManager<String> proxyManager = mock(ProxyManager.class);
+        RemoteBucketBuilder<String> builder = mock(RemoteBucketBuilder.class);
+        when(proxyManager.builder()).thenReturn(builder);
+        when(builder.build(anyString(), any(Supplier.class))).thenReturn(bucket);
+        return new HybridRateLimitBackend(proxyManager, batchSize, leaseDuration, 1000);
+    }
+}
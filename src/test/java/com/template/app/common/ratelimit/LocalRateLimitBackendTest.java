@@ -0,0 +1,165 @@
+package com.template.app.common.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimitBackendTest {
+
+    // 8 slots of 16 bytes: every key shares the same probe window
+    private static final DataSize EIGHT_SLOTS = DataSize.ofBytes(128);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void collidingKeysKeepSeparateBuckets() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(EIGHT_SLOTS, Duration.ofHours(1), meterRegistry);
+        RateLimitPolicy policy = policy(1, Duration.ofHours(1));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(backend.tryConsume("client-" + i, policy).allowed()).isTrue();
+        }
+        for (int i = 0; i < 8; i++) {
+            assertThat(backend.tryConsume("client-" + i, policy).allowed()).isFalse();
+        }
+
+        assertThat(entries()).isEqualTo(8);
+        assertThat(evictions("capacity") + evictions("expired")).isZero();
+    }
+
+    @Test
+    void fullTableReclaimsLeastRecentlyRefilledEntry() throws InterruptedException {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(EIGHT_SLOTS, Duration.ofHours(1), meterRegistry);
+        RateLimitPolicy policy = policy(2, Duration.ofHours(1));
+
+        assertThat(backend.tryConsume("oldest", policy).remainingTokens()).isEqualTo(1);
+        Thread.sleep(5);
+        for (int i = 0; i < 7; i++) {
+            backend.tryConsume("client-" + i, policy);
+        }
+        Thread.sleep(5);
+
+        backend.tryConsume("newcomer", policy);
+
+        assertThat(evictions("capacity")).isEqualTo(1);
+        assertThat(evictions("expired")).isZero();
+        assertThat(entries()).isEqualTo(8);
+        // The reclaimed client starts again with a full bucket
+        assertThat(backend.tryConsume("oldest", policy).remainingTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void idleEntryIsCountedAsExpired() throws InterruptedException {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(EIGHT_SLOTS, Duration.ofMillis(1), meterRegistry);
+        RateLimitPolicy policy = policy(2, Duration.ofHours(1));
+
+        for (int i = 0; i < 8; i++) {
+            backend.tryConsume("client-" + i, policy);
+        }
+        Thread.sleep(5);
+
+        backend.tryConsume("newcomer", policy);
+
+        assertThat(evictions("expired")).isEqualTo(1);
+        assertThat(evictions("capacity")).isZero();
+    }
+
+    @Test
+    void refillsWholePeriodsOnly() throws InterruptedException {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(DataSize.ofKilobytes(1), Duration.ofHours(1), meterRegistry);
+        RateLimitPolicy policy = policy(2, Duration.ofMillis(200));
+
+        assertThat(backend.tryConsume("client", policy).allowed()).isTrue();
+        assertThat(backend.tryConsume("client", policy).allowed()).isTrue();
+
+        RateLimitDecision rejected = backend.tryConsume("client", policy);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.nanosToWaitForRefill())
+                .isPositive()
+                .isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+        Thread.sleep(250);
+
+        assertThat(backend.tryConsume("client", policy).allowed()).isTrue();
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() throws InterruptedException {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(DataSize.ofKilobytes(1), Duration.ofHours(1), meterRegistry);
+        RateLimitPolicy policy = policy(2, Duration.ofMillis(10));
+
+        backend.tryConsume("client", policy);
+        backend.tryConsume("client", policy);
+        Thread.sleep(100);
+
+        assertThat(backend.tryConsume("client", policy).remainingTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedCapacity() throws Exception {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(DataSize.ofKilobytes(1), Duration.ofHours(1), meterRegistry);
+        RateLimitPolicy policy = policy(1000, Duration.ofHours(1));
+
+        int threads = 8;
+        int attemptsPerThread = 250;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (backend.tryConsume("shared", policy).allowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed.get()).isEqualTo(1000);
+        assertThat(backend.tryConsume("shared", policy).allowed()).isFalse();
+    }
+
+    @Test
+    void hashNeverReturnsEmptyMarker() {
+        assertThat(LocalRateLimitBackend.hash("")).isNotZero();
+        assertThat(LocalRateLimitBackend.hash("client")).isEqualTo(LocalRateLimitBackend.hash("client"));
+        assertThat(LocalRateLimitBackend.hash("client-1")).isNotEqualTo(LocalRateLimitBackend.hash("client-2"));
+    }
+
+    private static RateLimitPolicy policy(long capacity, Duration refillPeriod) {
+        return RateLimitPolicy.of("test", List.of("/**"), capacity, 1, refillPeriod,
+                RateLimitPolicy.KeyStrategy.IP, RateLimitPolicy.Backend.LOCAL);
+    }
+
+    private double entries() {
+        return meterRegistry.get("ratelimit.local.entries").gauge().value();
+    }
+
+    private double evictions(String reason) {
+        return meterRegistry.get("ratelimit.local.evictions").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,125 @@
+package com.template.app.common.sqlmonitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlScopeReporterTest {
+
+    private static final String SCOPE_NAME = "GET /api/v1/users";
+    private static final String SELECT_ADDRESS = "select a.* from address a where a.user_id=?";
+
+    private SqlMonitorProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlScopeReporter reporter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlMonitorProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        reporter = new SqlScopeReporter(properties, meterRegistry);
+    }
+
+    @Test
+    void statementRepeatedPastThresholdIsReportedAsNPlusOne() {
+        reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope(SELECT_ADDRESS, 11));
+
+        assertThat(counter("sql.n_plus_one")).isEqualTo(1.0);
+    }
+
+    @Test
+    void statementRepeatedBelowThresholdIsNotReported() {
+        reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope(SELECT_ADDRESS, 9));
+
+        assertThat(counter("sql.n_plus_one")).isZero();
+    }
+
+    @Test
+    void distinctStatementsAreNotReportedAsNPlusOne() {
+        SqlScope scope = new SqlScope();
+        for (int i = 0; i < 20; i++) {
+            scope.statement("select * from users where id=" + i);
+        }
+
+        reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope);
+
+        assertThat(counter("sql.n_plus_one")).isZero();
+    }
+
+    @Test
+    void exceededBudgetFailsWhenConfiguredTo() {
+        properties.setFailOnBudgetExceeded(true);
+        properties.getBudgets().put(SCOPE_NAME, 1);
+
+        assertThatThrownBy(() -> reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope(SELECT_ADDRESS, 2)))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("issued 2 SQL statements, budget is 1");
+        assertThat(counter("sql.budget.exceeded")).isEqualTo(1.0);
+    }
+
+    @Test
+    void exceededBudgetIsOnlyCountedByDefault() {
+        properties.getBudgets().put(SCOPE_NAME, 1);
+
+        assertThatCode(() -> reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope(SELECT_ADDRESS, 2)))
+                .doesNotThrowAnyException();
+        assertThat(counter("sql.budget.exceeded")).isEqualTo(1.0);
+    }
+
+    @Test
+    void scopeWithinBudgetPasses() {
+        properties.setFailOnBudgetExceeded(true);
+        properties.getBudgets().put(SCOPE_NAME, 2);
+
+        reporter.report(SqlScopeReporter.SCOPE_REQUEST, SCOPE_NAME, scope(SELECT_ADDRESS, 2));
+
+        assertThat(counter("sql.budget.exceeded")).isZero();
+    }
+
+    @Test
+    void scopesWithoutOwnBudgetUseDefault() {
+        properties.setFailOnBudgetExceeded(true);
+        properties.setDefaultBudget(3);
+
+        assertThatThrownBy(() -> reporter.report(SqlScopeReporter.SCOPE_TRANSACTION, "UserService.find", scope(SELECT_ADDRESS, 4)))
+                .isInstanceOf(SqlBudgetExceededException.class);
+    }
+
+    @Test
+    void zeroDefaultBudgetDisablesCheck() {
+        properties.setFailOnBudgetExceeded(true);
+        properties.setDefaultBudget(0);
+
+        assertThatCode(() -> reporter.report(SqlScopeReporter.SCOPE_TRANSACTION, "UserService.find", scope(SELECT_ADDRESS, 500)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void recordsStatementCountPerScope() {
+        reporter.report(SqlScopeReporter.SCOPE_TRANSACTION, "UserService.find", scope(SELECT_ADDRESS, 3));
+
+        assertThat(meterRegistry.get("sql.statements")
+                .tag("scope", SqlScopeReporter.SCOPE_TRANSACTION)
+                .tag("name", "UserService.find")
+                .summary()
+                .totalAmount()).isEqualTo(3.0);
+    }
+
+    private static SqlScope scope(String sql, int times) {
+        SqlScope scope = new SqlScope();
+        for (int i = 0; i < times; i++) {
+            scope.statement(sql);
+        }
+        return scope;
+    }
+
+    private double counter(String name) {
+        Counter counter = meterRegistry.find(name).tag("name", SCOPE_NAME).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.template.app.common.sqlmonitor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SqlStatementFilterTest {
+
+    private SqlScopeReporter reporter;
+    private SqlStatementFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        reporter = mock(SqlScopeReporter.class);
+        filter = new SqlStatementFilter(new SqlMonitorProperties(), reporter);
+    }
+
+    @Test
+    void reportsStatementsOfRequestUnderItsPattern() throws Exception {
+        MockHttpServletRequest request = request(DispatcherType.REQUEST);
+
+        filter.doFilter(request, new MockHttpServletResponse(), statements(3));
+
+        ArgumentCaptor<SqlScope> scope = ArgumentCaptor.forClass(SqlScope.class);
+        verify(reporter).report(eq(SqlScopeReporter.SCOPE_REQUEST), eq("GET /api/v1/users/{id}"), scope.capture());
+        assertThat(scope.getValue().getStatements()).isEqualTo(3);
+    }
+
+    @Test
+    void dispatchThatStartedAsyncWorkIsNotReported() throws Exception {
+        MockHttpServletRequest request = request(DispatcherType.REQUEST);
+        FilterChain startsAsync = (req, res) -> {
+            SqlStatementRecorder.statement("select 1");
+            ((MockHttpServletRequest) req).setAsyncStarted(true);
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), startsAsync);
+
+        verify(reporter, never()).report(anyString(), anyString(), any());
+    }
+
+    @Test
+    void asyncDispatchIsReportedAsItsOwnScope() throws Exception {
+        MockHttpServletRequest request = request(DispatcherType.ASYNC);
+
+        filter.doFilter(request, new MockHttpServletResponse(), statements(2));
+
+        ArgumentCaptor<SqlScope> scope = ArgumentCaptor.forClass(SqlScope.class);
+        verify(reporter).report(eq(SqlScopeReporter.SCOPE_REQUEST), eq("GET /api/v1/users/{id}"), scope.capture());
+        assertThat(scope.getValue().getStatements()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest request(DispatcherType dispatcherType) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.setDispatcherType(dispatcherType);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+        return request;
+    }
+
+    private static FilterChain statements(int count) {
+        return (req, res) -> {
+            for (int i = 0; i < count; i++) {
+                SqlStatementRecorder.statement("select * from users where id=?");
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.template.app.common.sqlmonitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementRecorderTest {
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementRecorder.configure(Long.MAX_VALUE, () -> { });
+    }
+
+    @Test
+    void nestedScopesEachCountTheirOwnStatements() {
+        SqlScope request = SqlStatementRecorder.begin();
+        SqlStatementRecorder.statement("select 1");
+
+        SqlScope transaction = SqlStatementRecorder.begin();
+        SqlStatementRecorder.statement("select 2");
+        SqlStatementRecorder.statement("select 2");
+        SqlStatementRecorder.end(transaction);
+
+        SqlStatementRecorder.statement("select 3");
+        SqlStatementRecorder.end(request);
+
+        assertThat(transaction.getStatements()).isEqualTo(2);
+        assertThat(request.getStatements()).isEqualTo(4);
+    }
+
+    @Test
+    void executionTimeCountsTowardsEveryOpenScope() {
+        SqlScope outer = SqlStatementRecorder.begin();
+        SqlScope inner = SqlStatementRecorder.begin();
+        SqlStatementRecorder.executed(1_000);
+        SqlStatementRecorder.end(inner);
+        SqlStatementRecorder.executed(500);
+        SqlStatementRecorder.end(outer);
+
+        assertThat(inner.getExecutionNanos()).isEqualTo(1_000);
+        assertThat(outer.getExecutionNanos()).isEqualTo(1_500);
+    }
+
+    @Test
+    void statementsOutsideAnyScopeAreNotCounted() {
+        SqlStatementRecorder.statement("select 1");
+
+        SqlScope scope = SqlStatementRecorder.begin();
+        SqlStatementRecorder.end(scope);
+        SqlStatementRecorder.statement("select 2");
+
+        assertThat(scope.getStatements()).isZero();
+    }
+
+    @Test
+    void statementsOnAnotherThreadDoNotCountTowardsThisThreadsScope() throws Exception {
+        SqlScope scope = SqlStatementRecorder.begin();
+        try {
+            CompletableFuture.runAsync(() -> SqlStatementRecorder.statement("select 1")).get(5, TimeUnit.SECONDS);
+            SqlStatementRecorder.statement("select 2");
+        } finally {
+            SqlStatementRecorder.end(scope);
+        }
+
+        assertThat(scope.getStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void onlySlowStatementsNotifyTheListener() {
+        AtomicInteger slow = new AtomicInteger();
+        SqlStatementRecorder.configure(TimeUnit.MILLISECONDS.toNanos(100), slow::incrementAndGet);
+
+        SqlStatementRecorder.statement("select pg_sleep(1)");
+        SqlStatementRecorder.executed(TimeUnit.MILLISECONDS.toNanos(99));
+        SqlStatementRecorder.executed(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(slow.get()).isEqualTo(1);
+    }
+
+    @Test
+    void longStatementsAreAbbreviatedForLogging() {
+        assertThat(SqlStatementRecorder.abbreviate("x".repeat(600))).hasSize(503).endsWith("...");
+        assertThat(SqlStatementRecorder.abbreviate(null)).isEqualTo("<unknown>");
+    }
+}
@@ -0,0 +1,198 @@
+package com.template.app.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.app.notification.domain.PushMessage;
+import com.template.app.notification.entity.PushToken;
+import com.template.app.notification.repository.PushTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.CreatePlatformEndpointRequest;
+import software.amazon.awssdk.services.sns.model.CreatePlatformEndpointResponse;
+import software.amazon.awssdk.services.sns.model.EndpointDisabledException;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PushFanoutServiceTest {
+
+    private static final PushMessage MESSAGE = new PushMessage("Title", "Body", Map.of());
+
+    private SnsAsyncClient snsAsyncClient;
+    private PushTokenRepository pushTokenRepository;
+    private JdbcTemplate jdbcTemplate;
+    private PushCampaignTracker campaignTracker;
+    private DeadLetterQueueService dlqService;
+    private PushFanoutService service;
+    private ScheduledExecutorService completer;
+
+    @BeforeEach
+    void setUp() {
+        snsAsyncClient = mock(SnsAsyncClient.class);
+        pushTokenRepository = mock(PushTokenRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        campaignTracker = mock(PushCampaignTracker.class);
+        dlqService = mock(DeadLetterQueueService.class);
+        completer = Executors.newScheduledThreadPool(4);
+
+        service = new PushFanoutService(snsAsyncClient, pushTokenRepository, jdbcTemplate,
+                new PushPayloadRenderer(new ObjectMapper(), 100, 60_000), campaignTracker, new SimpleMeterRegistry());
+        service.setDlqService(dlqService);
+        ReflectionTestUtils.setField(service, "batchSize", 3);
+        ReflectionTestUtils.setField(service, "maxInFlight", 2);
+        ReflectionTestUtils.setField(service, "maxConcurrentCampaigns", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "androidPlatformArn", "arn:aws:sns:android");
+        ReflectionTestUtils.setField(service, "iosPlatformArn", "arn:aws:sns:ios");
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        completer.shutdownNow();
+    }
+
+    @Test
+    void keepsAtMostMaxInFlightPublishesOutstanding() {
+        pages(List.of(token(1, "arn:1"), token(2, "arn:2"), token(3, "arn:3")),
+                List.of(token(4, "arn:4"), token(5, "arn:5"), token(6, "arn:6")));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObserved = new AtomicInteger();
+        when(snsAsyncClient.publish(any(PublishRequest.class))).thenAnswer(invocation -> {
+            maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<PublishResponse> future = new CompletableFuture<>();
+            completer.schedule(() -> {
+                inFlight.decrementAndGet();
+                future.complete(PublishResponse.builder().build());
+            }, 20, TimeUnit.MILLISECONDS);
+            return future;
+        });
+
+        String campaignId = service.broadcast(MESSAGE);
+
+        verify(campaignTracker, timeout(5000)).finish(campaignId, PushCampaignTracker.STATUS_COMPLETED);
+        verify(snsAsyncClient, times(6)).publish(any(PublishRequest.class));
+        assertThat(maxObserved.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void abortsWhenEveryPublishOfAPageFails() {
+        pages(List.of(token(1, "arn:1"), token(2, "arn:2"), token(3, "arn:3")),
+                List.of(token(4, "arn:4")));
+        when(snsAsyncClient.publish(any(PublishRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(SdkClientException.create("SNS unavailable")));
+
+        String campaignId = service.broadcast(MESSAGE);
+
+        verify(campaignTracker, timeout(5000)).finish(campaignId, PushCampaignTracker.STATUS_FAILED);
+        verify(pushTokenRepository, times(1)).findEnabledAfter(anyLong(), any(Pageable.class));
+        verify(snsAsyncClient, times(3)).publish(any(PublishRequest.class));
+        verify(campaignTracker).record(campaignId, 0, 3, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistsEndpointsDisabledTokensAndFailuresPerPage() {
+        PushToken unregistered = token(1, null);
+        PushToken disabled = token(2, "arn:2");
+        PushToken failing = token(3, "arn:3");
+        pages(List.of(unregistered, disabled, failing));
+
+        when(snsAsyncClient.createPlatformEndpoint(any(CreatePlatformEndpointRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreatePlatformEndpointResponse.builder().endpointArn("arn:1").build()));
+        when(snsAsyncClient.publish(any(PublishRequest.class))).thenAnswer(invocation -> {
+            String target = invocation.<PublishRequest>getArgument(0).targetArn();
+            return switch (target) {
+                case "arn:2" -> CompletableFuture.failedFuture(
+                        EndpointDisabledException.builder().message("disabled").build());
+                case "arn:3" -> CompletableFuture.failedFuture(SdkClientException.create("throttled"));
+                default -> CompletableFuture.completedFuture(PublishResponse.builder().build());
+            };
+        });
+
+        String campaignId = service.broadcast(MESSAGE);
+
+        verify(campaignTracker, timeout(5000)).finish(campaignId, PushCampaignTracker.STATUS_COMPLETED);
+        verify(campaignTracker).record(campaignId, 1, 1, 1);
+
+        // The created endpoint is stored in one UPDATE, the disabled token and the failure in one call each
+        verify(jdbcTemplate, times(1)).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(unregistered.getEndpointArn()).isEqualTo("arn:1");
+
+        ArgumentCaptor<Collection<Long>> disabledIds = ArgumentCaptor.forClass(Collection.class);
+        verify(pushTokenRepository).disableByIds(disabledIds.capture());
+        assertThat(disabledIds.getValue()).containsExactly(2L);
+
+        ArgumentCaptor<List<DeadLetterQueueService.FailedRecipient>> failures = ArgumentCaptor.forClass(List.class);
+        verify(dlqService).addAllToQueue(eq("PUSH"), anyString(), failures.capture());
+        assertThat(failures.getValue()).extracting(DeadLetterQueueService.FailedRecipient::address)
+                .containsExactly("device-3");
+    }
+
+    @Test
+    void doesNotPersistAnythingForACleanPage() {
+        pages(List.of(token(1, "arn:1")));
+        when(snsAsyncClient.publish(any(PublishRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(PublishResponse.builder().build()));
+
+        String campaignId = service.broadcast(MESSAGE);
+
+        verify(campaignTracker, timeout(5000)).finish(campaignId, PushCampaignTracker.STATUS_COMPLETED);
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        verify(pushTokenRepository, never()).disableByIds(any());
+        verify(dlqService, never()).addAllToQueue(anyString(), anyString(), any());
+    }
+
+    /**
+     * Serves the pages in order, then an empty one.
+     */
+    @SafeVarargs
+    private void pages(List<PushToken>... pages) {
+        var stubbing = when(pushTokenRepository.findEnabledAfter(anyLong(), any(Pageable.class)));
+        for (List<PushToken> page : pages) {
+            stubbing = stubbing.thenReturn(page);
+        }
+        stubbing.thenReturn(List.of());
+    }
+
+    private static PushToken token(long id, String endpointArn) {
+        PushToken token = new PushToken();
+        token.setId(id);
+        token.setUserId(100 + id);
+        token.setDeviceToken("device-" + id);
+        token.setPlatform("ANDROID");
+        token.setEndpointArn(endpointArn);
+        return token;
+    }
+}